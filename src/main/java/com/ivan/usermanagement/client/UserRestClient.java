@@ -1,19 +1,31 @@
 package com.ivan.usermanagement.client;
 
+import com.ivan.usermanagement.dto.UserBatchDto;
 import com.ivan.usermanagement.dto.UserDto;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class UserRestClient {
 
+    private static final int IDS_PER_CALL = 100;
+    private static final int PARALLEL_CALLS = 8;
+
     private final WebClient webClient;
 
     public UserRestClient() {
+        this("http://localhost:8080/api/users");
+    }
+
+    public UserRestClient(String baseUrl) {
         this.webClient = WebClient.builder()
-                .baseUrl("http://localhost:8080/api/users")
+                .baseUrl(baseUrl)
                 .build();
     }
 
@@ -46,6 +58,38 @@ public class UserRestClient {
         }
     }
 
+    /**
+     * Get many users by ID. Large ID sets are split into calls of {@value #IDS_PER_CALL} IDs that run
+     * in parallel; the merged result keeps the requested order and lists IDs that were not found.
+     */
+    public UserBatchDto getUsersByIds(List<Long> userIds) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(userIds));
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += IDS_PER_CALL) {
+            batches.add(distinct.subList(from, Math.min(from + IDS_PER_CALL, distinct.size())));
+        }
+
+        List<UserBatchDto> results = Flux.fromIterable(batches)
+                .flatMapSequential(batch -> webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .queryParam("ids", batch.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                                .build())
+                        .retrieve()
+                        .bodyToMono(UserBatchDto.class), PARALLEL_CALLS)
+                .collectList()
+                .block();
+
+        List<UserDto> users = new ArrayList<>(distinct.size());
+        List<Long> missingIds = new ArrayList<>();
+        if (results != null) {
+            for (UserBatchDto result : results) {
+                users.addAll(result.getUsers());
+                missingIds.addAll(result.getMissingIds());
+            }
+        }
+        return new UserBatchDto(users, missingIds);
+    }
+
     /**
      * Get all users
      */
@@ -0,0 +1,15 @@
+package com.ivan.usermanagement.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * User DTOs keyed by id, read and filled by multi-get only; size and expiry are set by
+     * spring.cache.caffeine.spec.
+     */
+    public static final String USERS_CACHE = "users";
+}
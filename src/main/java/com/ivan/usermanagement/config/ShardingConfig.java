@@ -0,0 +1,92 @@
+package com.ivan.usermanagement.config;
+
+import com.ivan.usermanagement.repository.ShardedUserRepository;
+import com.ivan.usermanagement.sharding.ConsistentHashRouter;
+import com.ivan.usermanagement.sharding.SnowflakeIdGenerator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@Profile("sharding")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * Pool settings shared by every shard, bound from the same {@code spring.datasource.hikari.*} keys as
+     * the single-database pool (timeouts, leak detection, driver properties).
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariConfig shardPoolConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public ShardedUserRepository shardedUserRepository(ShardingProperties properties, HikariConfig shardPoolConfig,
+                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("The sharding profile requires at least one app.sharding.shards entry");
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        List<DataSource> dataSources = new ArrayList<>();
+        try {
+            for (int i = 0; i < properties.getShards().size(); i++) {
+                ShardingProperties.Shard shard = properties.getShards().get(i);
+                HikariConfig config = new HikariConfig();
+                shardPoolConfig.copyStateTo(config);
+                config.setPoolName("user-shard-" + i);
+                config.setJdbcUrl(shard.getUrl());
+                config.setUsername(shard.getUsername());
+                config.setPassword(shard.getPassword());
+                if (shard.getMaximumPoolSize() != null) {
+                    config.setMaximumPoolSize(shard.getMaximumPoolSize());
+                }
+                if (registry != null) {
+                    config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+                HikariDataSource dataSource = new HikariDataSource(config);
+                dataSources.add(dataSource);
+                if (properties.isInitializeSchema()) {
+                    new ResourceDatabasePopulator(new ClassPathResource("sharding-schema.sql")).execute(dataSource);
+                }
+            }
+        } catch (RuntimeException e) {
+            for (DataSource dataSource : dataSources) {
+                ((HikariDataSource) dataSource).close();
+            }
+            throw e;
+        }
+        return new ShardedUserRepository(dataSources, properties.getDirectoryShard(), properties.getEmailClaimTimeout());
+    }
+
+    @Bean
+    public ConsistentHashRouter consistentHashRouter(ShardingProperties properties) {
+        return new ConsistentHashRouter(properties.getShards().size(), properties.getVirtualNodes());
+    }
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(ShardingProperties properties) {
+        return new SnowflakeIdGenerator(properties.getNodeId());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shardFanOutExecutor(ShardingProperties properties) {
+        return Executors.newFixedThreadPool(properties.getFanOutThreads());
+    }
+}
@@ -0,0 +1,60 @@
+package com.ivan.usermanagement.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    /**
+     * Id generator node of this instance; must be unique across running instances (0-1023).
+     */
+    private long nodeId = 0;
+
+    /**
+     * Points each shard owns on the consistent-hash ring.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Index of the shard that hosts the global email directory.
+     */
+    private int directoryShard = 0;
+
+    /**
+     * Age after which an email claim not backed by a user row is treated as abandoned and can be taken
+     * by another user. Must exceed the slowest user write plus the clock skew between instances.
+     */
+    private Duration emailClaimTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Threads used to query all shards in parallel.
+     */
+    private int fanOutThreads = 8;
+
+    /**
+     * Create the sharding tables on startup if they are missing.
+     */
+    private boolean initializeSchema = true;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        /**
+         * Pool size for this shard; defaults to spring.datasource.hikari.maximum-pool-size.
+         */
+        private Integer maximumPoolSize;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ivan.usermanagement.config;
+
+import com.ivan.usermanagement.snapshot.UserDirectoryLoader;
+import com.ivan.usermanagement.snapshot.UserSnapshot;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+@Configuration
+@Profile("snapshot")
+@EnableConfigurationProperties(SnapshotProperties.class)
+public class SnapshotConfig {
+
+    @Bean
+    public UserDirectoryLoader userDirectoryLoader(DataSource dataSource, SnapshotProperties properties) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(properties.getFetchSize());
+        return new UserDirectoryLoader(jdbcTemplate);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public UserSnapshot userSnapshot(UserDirectoryLoader loader, SnapshotProperties properties) {
+        return new UserSnapshot(loader, properties.getRefreshInterval(), properties.getFullRefreshInterval(),
+                properties.getWatermarkOverlap(), properties.getMaxPendingChanges());
+    }
+}
@@ -0,0 +1,40 @@
+package com.ivan.usermanagement.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.snapshot")
+public class SnapshotProperties {
+
+    /**
+     * Delay between incremental refreshes of the in-memory directory.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(5);
+
+    /**
+     * Interval of full reloads from the database. Changes and deletes arrive incrementally, so this only
+     * bounds how long a row missed by an incremental refresh can stay stale. Tombstones in user_deletions
+     * older than this can be purged.
+     */
+    private Duration fullRefreshInterval = Duration.ofHours(6);
+
+    /**
+     * How far before the last seen updated_at each incremental refresh starts reading.
+     */
+    private Duration watermarkOverlap = Duration.ofSeconds(2);
+
+    /**
+     * Changed and deleted users kept in the overlay before they are compacted into the packed directory.
+     */
+    private int maxPendingChanges = 100_000;
+
+    /**
+     * Rows fetched per round trip while loading.
+     */
+    private int fetchSize = 10_000;
+}
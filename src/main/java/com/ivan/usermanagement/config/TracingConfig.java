@@ -0,0 +1,64 @@
+package com.ivan.usermanagement.config;
+
+import com.ivan.usermanagement.tracing.InMemorySpanExporter;
+import com.ivan.usermanagement.tracing.RequestTracer;
+import com.ivan.usermanagement.tracing.SpanExporter;
+import com.ivan.usermanagement.tracing.SqlStatementCounter;
+import com.ivan.usermanagement.tracing.TracingAspect;
+import com.ivan.usermanagement.tracing.TracingFilter;
+import com.ivan.usermanagement.tracing.ZipkinJsonFileExporter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+@ConditionalOnProperty(prefix = "app.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SpanExporter spanExporter(TracingProperties properties,
+                                     @Value("${spring.application.name}") String serviceName) {
+        if (properties.getExportFile() != null && !properties.getExportFile().isBlank()) {
+            return new ZipkinJsonFileExporter(Path.of(properties.getExportFile()), serviceName,
+                    properties.getExportQueueCapacity());
+        }
+        return new InMemorySpanExporter(properties.getInMemoryCapacity());
+    }
+
+    @Bean
+    public RequestTracer requestTracer(TracingProperties properties, SpanExporter spanExporter) {
+        return new RequestTracer(properties, spanExporter);
+    }
+
+    @Bean
+    public TracingAspect tracingAspect(RequestTracer requestTracer) {
+        return new TracingAspect(requestTracer);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(RequestTracer requestTracer) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new SqlStatementCounter(requestTracer));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<TracingFilter> tracingFilter(RequestTracer requestTracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(requestTracer));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
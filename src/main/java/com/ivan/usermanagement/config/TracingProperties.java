@@ -0,0 +1,53 @@
+package com.ivan.usermanagement.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.tracing")
+public class TracingProperties {
+
+    /**
+     * Trace every HTTP request with controller, service, mapper and repository spans.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Requests at least this slow are logged with a per-layer breakdown.
+     */
+    private Duration slowRequestThreshold = Duration.ofMillis(500);
+
+    /**
+     * Warn when a request issues more SQL statements than this.
+     */
+    private int maxStatementsPerRequest = 10;
+
+    /**
+     * Warn about a possible N+1 when the same SELECT runs this many times in one request.
+     */
+    private int repeatedStatementThreshold = 3;
+
+    /**
+     * Warn about redundant reads when a table is selected from this many times in one request.
+     */
+    private int redundantSelectThreshold = 2;
+
+    /**
+     * File receiving Zipkin v2 JSON spans; when unset, the latest spans are kept in memory.
+     */
+    private String exportFile;
+
+    /**
+     * Requests whose spans may wait for the export file writer; spans beyond this are dropped.
+     */
+    private int exportQueueCapacity = 10_000;
+
+    /**
+     * Number of spans retained by the in-memory exporter.
+     */
+    private int inMemoryCapacity = 10_000;
+}
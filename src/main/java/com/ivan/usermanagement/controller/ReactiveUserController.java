@@ -0,0 +1,79 @@
+package com.ivan.usermanagement.controller;
+
+
+import com.ivan.usermanagement.dto.UserBatchDto;
+import com.ivan.usermanagement.dto.UserDto;
+import com.ivan.usermanagement.service.ReactiveUserService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux variant of {@link UserController}, active with the {@code reactive} profile.
+ * Serves the same paths and status codes. The OpenAPI description comes from {@link UserController};
+ * springdoc is only wired for the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/users")
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<UserDto>> createUser(@RequestBody UserDto userDto) {
+        return userService.createUser(userDto)
+                .map(createdUser -> ResponseEntity.status(HttpStatus.CREATED).body(createdUser));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserDto>> getUserById(@PathVariable Long id) {
+        return userService.getUserById(id)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(params = "email")
+    public Mono<ResponseEntity<UserDto>> getUserByEmail(@RequestParam String email) {
+        return userService.getUserByEmail(email)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<UserBatchDto>> getUsersByIds(@RequestParam List<Long> ids) {
+        return userService.getUsersByIds(ids)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Streams users as they are read: a JSON array by default, or one object per line
+     * when the client asks for {@code application/x-ndjson}.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<UserDto> getAllUsers() {
+        return userService.getAllUsers();
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<UserDto>> updateUser(
+            @PathVariable Long id,
+            @RequestBody UserDto userDto) {
+        return userService.updateUser(id, userDto)
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable Long id) {
+        return userService.deleteUser(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
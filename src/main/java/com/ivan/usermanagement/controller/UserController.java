@@ -1,6 +1,7 @@
 package com.ivan.usermanagement.controller;
 
 
+import com.ivan.usermanagement.dto.UserBatchDto;
 import com.ivan.usermanagement.dto.UserDto;
 import com.ivan.usermanagement.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/users")
 @Tag(name = "User Management", description = "APIs for managing users")
 public class UserController {
@@ -52,6 +55,31 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    @Operation(summary = "Get user by email", description = "Retrieve a user's details using their email address")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User found",
+                    content = @Content(schema = @Schema(implementation = UserDto.class))),
+            @ApiResponse(responseCode = "404", description = "User not found",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping(params = "email")
+    public ResponseEntity<UserDto> getUserByEmail(@RequestParam String email) {
+        return ResponseEntity.ok(userService.getUserByEmail(email));
+    }
+
+    @Operation(summary = "Get users by IDs",
+            description = "Retrieve up to 500 users in one call; results keep the requested order and unknown IDs are listed as missing")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = UserBatchDto.class))),
+            @ApiResponse(responseCode = "400", description = "Too many IDs requested",
+                    content = @Content(schema = @Schema()))
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<UserBatchDto> getUsersByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
     @Operation(summary = "Get all users", description = "Retrieve a list of all users in the system")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
@@ -0,0 +1,18 @@
+package com.ivan.usermanagement.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get: the users found, in the order their ids were requested,
+ * and the requested ids that do not exist.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchDto {
+    private List<UserDto> users;
+    private List<Long> missingIds;
+}
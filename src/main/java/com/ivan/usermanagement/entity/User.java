@@ -4,13 +4,14 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_updated_at", columnList = "updated_at"))
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,4 +28,17 @@ public class User {
 
     @Column(nullable = false)
     private LocalDate dateOfBirth;
+
+    /**
+     * Set by the database on every insert and update; read-only snapshots use it to fetch only changed rows.
+     * Taking the database clock keeps stamps from different application instances comparable. Never
+     * written by Hibernate, and not refreshed on the entity after a write.
+     */
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+    private LocalDateTime updatedAt;
+
+    public User(Long id, String firstName, String lastName, String email, LocalDate dateOfBirth) {
+        this(id, firstName, lastName, email, dateOfBirth, null);
+    }
 }
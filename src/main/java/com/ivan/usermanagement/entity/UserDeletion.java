@@ -0,0 +1,31 @@
+package com.ivan.usermanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone left by every user delete, in the same transaction, so read-only snapshots can drop the user
+ * incrementally instead of reloading the whole table. Ids come from AUTO_INCREMENT and are never reused,
+ * so a user id is tombstoned at most once.
+ * <p>
+ * Only snapshot replicas catching up from their watermark read these rows; rows older than the snapshot's
+ * full refresh interval can be purged.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(name = "user_deletions", indexes = @Index(name = "idx_user_deletions_deleted_at", columnList = "deleted_at"))
+public class UserDeletion {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * Set by the database, on the same clock as {@link User#getUpdatedAt()}.
+     */
+    @Column(name = "deleted_at", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6)")
+    private LocalDateTime deletedAt;
+}
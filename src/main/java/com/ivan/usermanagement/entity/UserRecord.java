@@ -0,0 +1,42 @@
+package com.ivan.usermanagement.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code users} table, used by the reactive stack.
+ * Columns follow the same snake_case names Hibernate generates for {@link User}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("users")
+public class UserRecord {
+    @Id
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private LocalDate dateOfBirth;
+
+    /**
+     * Set by the database on every insert and update, like {@link User#getUpdatedAt()}, so read-only
+     * snapshots see changes made through the reactive stack.
+     */
+    @ReadOnlyProperty
+    private LocalDateTime updatedAt;
+
+    public UserRecord(Long id, String firstName, String lastName, String email, LocalDate dateOfBirth) {
+        this(id, firstName, lastName, email, dateOfBirth, null);
+    }
+}
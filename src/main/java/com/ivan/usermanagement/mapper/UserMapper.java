@@ -3,6 +3,7 @@ package com.ivan.usermanagement.mapper;
 
 import com.ivan.usermanagement.dto.UserDto;
 import com.ivan.usermanagement.entity.User;
+import com.ivan.usermanagement.entity.UserRecord;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -26,4 +27,24 @@ public class UserMapper {
                 dto.getDateOfBirth()
         );
     }
+
+    public UserDto toDto(UserRecord record) {
+        return new UserDto(
+                record.getId(),
+                record.getFirstName(),
+                record.getLastName(),
+                record.getEmail(),
+                record.getDateOfBirth()
+        );
+    }
+
+    public UserRecord toRecord(UserDto dto) {
+        return new UserRecord(
+                dto.getId(),
+                dto.getFirstName(),
+                dto.getLastName(),
+                dto.getEmail(),
+                dto.getDateOfBirth()
+        );
+    }
 }
@@ -0,0 +1,27 @@
+package com.ivan.usermanagement.repository;
+
+import com.ivan.usermanagement.entity.UserRecord;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends R2dbcRepository<UserRecord, Long> {
+    Mono<UserRecord> findByEmail(String email);
+
+    /**
+     * Delete in a single statement and report the affected row count,
+     * so a missing user is detected without a separate existence query.
+     */
+    @Modifying
+    @Query("DELETE FROM users WHERE id = :id")
+    Mono<Integer> deleteByIdReturningCount(Long id);
+
+    /**
+     * Leave a {@link com.ivan.usermanagement.entity.UserDeletion} tombstone for snapshot replicas;
+     * call it in the transaction that deletes the user.
+     */
+    @Modifying
+    @Query("INSERT INTO user_deletions (user_id) VALUES (:id)")
+    Mono<Integer> recordDeletion(Long id);
+}
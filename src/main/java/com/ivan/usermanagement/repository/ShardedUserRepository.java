@@ -0,0 +1,166 @@
+package com.ivan.usermanagement.repository;
+
+import com.ivan.usermanagement.entity.User;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to the {@code users} table spread over several databases.
+ * <p>
+ * Callers pass the shard index chosen by the router. Email uniqueness cannot be enforced by a
+ * per-shard constraint, so one shard also hosts {@code user_email_directory}, a global
+ * email-to-id index whose primary key rejects duplicates.
+ * <p>
+ * A claim is written before the user row and released after it, so a crash in between can leave a claim
+ * no row backs. Each claim records when it was made; once it is older than the claim timeout it may be
+ * handed to another user with {@link #reassignStaleEmail}.
+ */
+public class ShardedUserRepository implements Closeable {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, date_of_birth";
+
+    private static final RowMapper<User> USER_ROW_MAPPER = (rs, rowNum) -> new User(
+            rs.getLong("id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("email"),
+            rs.getDate("date_of_birth").toLocalDate()
+    );
+
+    private final List<DataSource> dataSources;
+    private final List<JdbcTemplate> shards;
+    private final JdbcTemplate directory;
+    private final Duration claimTimeout;
+
+    /**
+     * @param claimTimeout how long a claim is protected while its write is in flight; must exceed the
+     *                     slowest user write plus the clock skew between instances
+     */
+    public ShardedUserRepository(List<DataSource> dataSources, int directoryShard, Duration claimTimeout) {
+        if (directoryShard < 0 || directoryShard >= dataSources.size()) {
+            throw new IllegalArgumentException("Directory shard " + directoryShard + " is not one of the "
+                    + dataSources.size() + " configured shards");
+        }
+        this.dataSources = List.copyOf(dataSources);
+        this.shards = new ArrayList<>(dataSources.size());
+        for (DataSource dataSource : dataSources) {
+            shards.add(new JdbcTemplate(dataSource));
+        }
+        this.directory = shards.get(directoryShard);
+        this.claimTimeout = claimTimeout;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public void insert(int shard, User user) {
+        shards.get(shard).update("INSERT INTO users (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)",
+                user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                Date.valueOf(user.getDateOfBirth()));
+    }
+
+    public Optional<User> findById(int shard, long id) {
+        return shards.get(shard).query("SELECT " + COLUMNS + " FROM users WHERE id = ?", USER_ROW_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    public List<User> findAllById(int shard, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return shards.get(shard).query("SELECT " + COLUMNS + " FROM users WHERE id IN (" + placeholders + ")",
+                USER_ROW_MAPPER, ids.toArray());
+    }
+
+    public List<User> findAllOrderById(int shard) {
+        return shards.get(shard).query("SELECT " + COLUMNS + " FROM users ORDER BY id", USER_ROW_MAPPER);
+    }
+
+    /**
+     * Update the row only if it still holds {@code expectedEmail}, so a concurrent email change is
+     * detected instead of overwritten.
+     *
+     * @return the number of rows updated, 0 if the user is gone or its email changed
+     */
+    public int update(int shard, User user, String expectedEmail) {
+        return shards.get(shard).update(
+                "UPDATE users SET first_name = ?, last_name = ?, email = ?, date_of_birth = ? WHERE id = ? AND email = ?",
+                user.getFirstName(), user.getLastName(), user.getEmail(),
+                Date.valueOf(user.getDateOfBirth()), user.getId(), expectedEmail);
+    }
+
+    public int deleteById(int shard, long id) {
+        return shards.get(shard).update("DELETE FROM users WHERE id = ?", id);
+    }
+
+    /**
+     * Reserve an email for a user in the global directory.
+     *
+     * @return false if another user already holds the email
+     */
+    public boolean claimEmail(String email, long userId) {
+        try {
+            directory.update("INSERT INTO user_email_directory (email, user_id, claimed_at) VALUES (?, ?, ?)",
+                    email, userId, Timestamp.from(Instant.now()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Move a claim from {@code fromUserId} to {@code toUserId}, provided it is still held by
+     * {@code fromUserId} and older than the claim timeout. The caller must first check that no user row
+     * holds the email.
+     *
+     * @return false if the claim changed hands meanwhile or is too recent to be abandoned
+     */
+    public boolean reassignStaleEmail(String email, long fromUserId, long toUserId) {
+        Instant now = Instant.now();
+        return directory.update(
+                "UPDATE user_email_directory SET user_id = ?, claimed_at = ? WHERE email = ? AND user_id = ? AND claimed_at < ?",
+                toUserId, Timestamp.from(now), email, fromUserId, Timestamp.from(now.minus(claimTimeout))) == 1;
+    }
+
+    public void releaseEmail(String email, long userId) {
+        directory.update("DELETE FROM user_email_directory WHERE email = ? AND user_id = ?", email, userId);
+    }
+
+    /**
+     * Release every email reserved for a user, including claims left by concurrent updates.
+     */
+    public void releaseEmails(long userId) {
+        directory.update("DELETE FROM user_email_directory WHERE user_id = ?", userId);
+    }
+
+    public Optional<Long> findUserIdByEmail(String email) {
+        return directory.queryForList("SELECT user_id FROM user_email_directory WHERE email = ?", Long.class, email)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -2,9 +2,19 @@ package com.ivan.usermanagement.repository;
 
 import com.ivan.usermanagement.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    /**
+     * Leave a {@link com.ivan.usermanagement.entity.UserDeletion} tombstone for snapshot replicas;
+     * call it in the transaction that deletes the user.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_deletions (user_id) VALUES (:id)", nativeQuery = true)
+    void recordDeletion(Long id);
 }
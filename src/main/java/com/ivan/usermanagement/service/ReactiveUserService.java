@@ -0,0 +1,18 @@
+package com.ivan.usermanagement.service;
+
+import com.ivan.usermanagement.dto.UserBatchDto;
+import com.ivan.usermanagement.dto.UserDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveUserService {
+    Mono<UserDto> createUser(UserDto userDto);
+    Mono<UserDto> getUserById(Long id);
+    Mono<UserDto> getUserByEmail(String email);
+    Mono<UserBatchDto> getUsersByIds(List<Long> ids);
+    Flux<UserDto> getAllUsers();
+    Mono<UserDto> updateUser(Long id, UserDto userDto);
+    Mono<Void> deleteUser(Long id);
+}
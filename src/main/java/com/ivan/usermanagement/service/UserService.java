@@ -1,12 +1,20 @@
 package com.ivan.usermanagement.service;
 
+import com.ivan.usermanagement.dto.UserBatchDto;
 import com.ivan.usermanagement.dto.UserDto;
 
 import java.util.List;
 
 public interface UserService {
+    /**
+     * Upper bound on the number of ids accepted by {@link #getUsersByIds(List)}.
+     */
+    int MAX_IDS_PER_REQUEST = 500;
+
     UserDto createUser(UserDto userDto);
     UserDto getUserById(Long id);
+    UserDto getUserByEmail(String email);
+    UserBatchDto getUsersByIds(List<Long> ids);
     List<UserDto> getAllUsers();
     UserDto updateUser(Long id, UserDto userDto);
     void deleteUser(Long id);
@@ -0,0 +1,115 @@
+package com.ivan.usermanagement.service.impl;
+
+
+import com.ivan.usermanagement.dto.UserBatchDto;
+import com.ivan.usermanagement.dto.UserDto;
+import com.ivan.usermanagement.entity.UserRecord;
+import com.ivan.usermanagement.exception.InvalidRequestException;
+import com.ivan.usermanagement.exception.ResourceNotFoundException;
+import com.ivan.usermanagement.mapper.UserMapper;
+import com.ivan.usermanagement.repository.ReactiveUserRepository;
+import com.ivan.usermanagement.service.ReactiveUserService;
+import com.ivan.usermanagement.service.UserService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+@Service
+@Profile("reactive")
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final UserMapper userMapper;
+
+    public ReactiveUserServiceImpl(ReactiveUserRepository userRepository, UserMapper userMapper) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+    }
+
+    @Override
+    public Mono<UserDto> createUser(UserDto userDto) {
+        UserRecord record = userMapper.toRecord(userDto);
+        // The database assigns the id; a client-supplied id would turn the insert into an update
+        record.setId(null);
+        return userRepository.save(record)
+                .map(userMapper::toDto);
+    }
+
+    @Override
+    public Mono<UserDto> getUserById(Long id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with id: " + id)))
+                .map(userMapper::toDto);
+    }
+
+    @Override
+    public Mono<UserDto> getUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with email: " + email)))
+                .map(userMapper::toDto);
+    }
+
+    @Override
+    public Mono<UserBatchDto> getUsersByIds(List<Long> ids) {
+        if (ids.size() > UserService.MAX_IDS_PER_REQUEST) {
+            return Mono.error(new InvalidRequestException(
+                    "At most " + UserService.MAX_IDS_PER_REQUEST + " ids per request, got " + ids.size()));
+        }
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        List<Long> distinct = new ArrayList<>(requested);
+
+        // At most MAX_IDS_PER_REQUEST ids, so a single IN query
+        return userRepository.findAllById(distinct)
+                .collectMap(UserRecord::getId)
+                .map(found -> {
+                    List<UserDto> users = new ArrayList<>(found.size());
+                    List<Long> missingIds = new ArrayList<>();
+                    for (Long id : distinct) {
+                        UserRecord record = found.get(id);
+                        if (record != null) {
+                            users.add(userMapper.toDto(record));
+                        } else {
+                            missingIds.add(id);
+                        }
+                    }
+                    return new UserBatchDto(users, missingIds);
+                });
+    }
+
+    @Override
+    public Flux<UserDto> getAllUsers() {
+        // Rows are pulled from the driver as the subscriber requests them
+        return userRepository.findAll()
+                .map(userMapper::toDto);
+    }
+
+    @Override
+    public Mono<UserDto> updateUser(Long id, UserDto userDto) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with id: " + id)))
+                .flatMap(record -> {
+                    record.setFirstName(userDto.getFirstName());
+                    record.setLastName(userDto.getLastName());
+                    record.setEmail(userDto.getEmail());
+                    record.setDateOfBirth(userDto.getDateOfBirth());
+                    return userRepository.save(record);
+                })
+                .map(userMapper::toDto);
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deleteUser(Long id) {
+        return userRepository.deleteByIdReturningCount(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new ResourceNotFoundException("User not found with id: " + id))
+                        : userRepository.recordDeletion(id).then());
+    }
+}
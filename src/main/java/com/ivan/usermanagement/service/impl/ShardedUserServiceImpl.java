@@ -0,0 +1,272 @@
+package com.ivan.usermanagement.service.impl;
+
+
+import com.ivan.usermanagement.dto.UserBatchDto;
+import com.ivan.usermanagement.dto.UserDto;
+import com.ivan.usermanagement.entity.User;
+import com.ivan.usermanagement.exception.DuplicateResourceException;
+import com.ivan.usermanagement.exception.InvalidRequestException;
+import com.ivan.usermanagement.exception.ResourceNotFoundException;
+import com.ivan.usermanagement.mapper.UserMapper;
+import com.ivan.usermanagement.repository.ShardedUserRepository;
+import com.ivan.usermanagement.service.UserService;
+import com.ivan.usermanagement.sharding.ConsistentHashRouter;
+import com.ivan.usermanagement.sharding.SnowflakeIdGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * {@link UserService} over {@link ShardedUserRepository}, active with the {@code sharding} profile.
+ * <p>
+ * Ids come from {@link SnowflakeIdGenerator} so every shard can accept inserts independently, and the
+ * owning shard is always {@code router.shardFor(id)}. Emails are reserved in the global directory before
+ * the row is written and released if the write fails. The directory can therefore run ahead of the rows:
+ * lookups by email confirm the match on the user row, and a claim left behind by a write that never
+ * completed is taken over once it times out.
+ */
+@Service
+@Profile("sharding")
+public class ShardedUserServiceImpl implements UserService {
+
+    private final ShardedUserRepository userRepository;
+    private final ConsistentHashRouter router;
+    private final SnowflakeIdGenerator idGenerator;
+    private final UserMapper userMapper;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardedUserServiceImpl(ShardedUserRepository userRepository, ConsistentHashRouter router,
+                                  SnowflakeIdGenerator idGenerator, UserMapper userMapper,
+                                  ExecutorService fanOutExecutor) {
+        this.userRepository = userRepository;
+        this.router = router;
+        this.idGenerator = idGenerator;
+        this.userMapper = userMapper;
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
+    @Override
+    public UserDto createUser(UserDto userDto) {
+        User user = userMapper.toEntity(userDto);
+        user.setId(idGenerator.nextId());
+
+        if (!claimEmail(user.getEmail(), user.getId())) {
+            throw new DuplicateResourceException("User already exists with email: " + user.getEmail());
+        }
+        try {
+            userRepository.insert(router.shardFor(user.getId()), user);
+        } catch (RuntimeException e) {
+            userRepository.releaseEmail(user.getEmail(), user.getId());
+            throw e;
+        }
+        return userMapper.toDto(user);
+    }
+
+    @Override
+    public UserDto getUserById(Long id) {
+        User user = userRepository.findById(router.shardFor(id), id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        return userMapper.toDto(user);
+    }
+
+    /**
+     * The directory entry only says which user claimed the email; the user row decides whether it holds it.
+     */
+    @Override
+    public UserDto getUserByEmail(String email) {
+        User user = userRepository.findUserIdByEmail(email)
+                .flatMap(id -> userRepository.findById(router.shardFor(id), id))
+                .filter(found -> found.getEmail().equalsIgnoreCase(email))
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+        return userMapper.toDto(user);
+    }
+
+    /**
+     * Groups the ids by owning shard and queries only those shards, in parallel, with one IN query each.
+     */
+    @Override
+    public UserBatchDto getUsersByIds(List<Long> ids) {
+        if (ids.size() > MAX_IDS_PER_REQUEST) {
+            throw new InvalidRequestException("At most " + MAX_IDS_PER_REQUEST + " ids per request, got " + ids.size());
+        }
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+
+        Map<Integer, List<Long>> idsByShard = new HashMap<>();
+        for (Long id : requested) {
+            idsByShard.computeIfAbsent(router.shardFor(id), shard -> new ArrayList<>()).add(id);
+        }
+        List<CompletableFuture<List<User>>> futures = new ArrayList<>(idsByShard.size());
+        idsByShard.forEach((shard, shardIds) -> futures.add(
+                CompletableFuture.supplyAsync(() -> userRepository.findAllById(shard, shardIds), fanOutExecutor)));
+
+        Map<Long, User> found = new HashMap<>();
+        for (CompletableFuture<List<User>> future : futures) {
+            for (User user : join(future)) {
+                found.put(user.getId(), user);
+            }
+        }
+
+        List<UserDto> users = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            User user = found.get(id);
+            if (user != null) {
+                users.add(userMapper.toDto(user));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new UserBatchDto(users, missingIds);
+    }
+
+    /**
+     * Reads every shard in parallel; each returns its users ordered by id, and a k-way merge
+     * produces a single id-ordered list without re-sorting.
+     */
+    @Override
+    public List<UserDto> getAllUsers() {
+        List<CompletableFuture<List<User>>> futures = new ArrayList<>(userRepository.getShardCount());
+        for (int shard = 0; shard < userRepository.getShardCount(); shard++) {
+            int current = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> userRepository.findAllOrderById(current), fanOutExecutor));
+        }
+
+        PriorityQueue<ShardCursor> heads = new PriorityQueue<>(Comparator.comparingLong(cursor -> cursor.head.getId()));
+        int total = 0;
+        for (CompletableFuture<List<User>> future : futures) {
+            List<User> users = join(future);
+            total += users.size();
+            Iterator<User> iterator = users.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new ShardCursor(iterator));
+            }
+        }
+
+        List<UserDto> result = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            ShardCursor cursor = heads.poll();
+            result.add(userMapper.toDto(cursor.head));
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Optimistic update: the row is written only if it still holds the email read before, so two
+     * concurrent email changes cannot both release the same old address. The loser drops its claim
+     * and retries against the current row.
+     */
+    @Override
+    public UserDto updateUser(Long id, UserDto userDto) {
+        int shard = router.shardFor(id);
+        while (true) {
+            User user = userRepository.findById(shard, id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+
+            String previousEmail = user.getEmail();
+            boolean emailChanged = !Objects.equals(previousEmail, userDto.getEmail());
+            if (emailChanged && !claimEmail(userDto.getEmail(), id)) {
+                throw new DuplicateResourceException("User already exists with email: " + userDto.getEmail());
+            }
+
+            user.setFirstName(userDto.getFirstName());
+            user.setLastName(userDto.getLastName());
+            user.setEmail(userDto.getEmail());
+            user.setDateOfBirth(userDto.getDateOfBirth());
+
+            int updated;
+            try {
+                updated = userRepository.update(shard, user, previousEmail);
+            } catch (RuntimeException e) {
+                if (emailChanged) {
+                    userRepository.releaseEmail(userDto.getEmail(), id);
+                }
+                throw e;
+            }
+            if (updated == 1) {
+                if (emailChanged) {
+                    userRepository.releaseEmail(previousEmail, id);
+                }
+                return userMapper.toDto(user);
+            }
+            if (emailChanged) {
+                userRepository.releaseEmail(userDto.getEmail(), id);
+            }
+        }
+    }
+
+    /**
+     * Releases every email held by the user rather than the one read before the delete, so a claim
+     * made by a concurrent update is not left behind.
+     */
+    @Override
+    public void deleteUser(Long id) {
+        if (userRepository.deleteById(router.shardFor(id), id) == 0) {
+            throw new ResourceNotFoundException("User not found with id: " + id);
+        }
+        userRepository.releaseEmails(id);
+    }
+
+    /**
+     * Reserve an email in the directory. A claim held by another user is taken over only if that user's
+     * row does not hold the email and the claim is older than the claim timeout, i.e. its write is no
+     * longer in flight.
+     */
+    private boolean claimEmail(String email, long userId) {
+        while (!userRepository.claimEmail(email, userId)) {
+            Long owner = userRepository.findUserIdByEmail(email).orElse(null);
+            if (owner == null) {
+                continue;
+            }
+            boolean held = userRepository.findById(router.shardFor(owner), owner)
+                    .map(user -> user.getEmail().equalsIgnoreCase(email))
+                    .orElse(false);
+            return !held && userRepository.reassignStaleEmail(email, owner, userId);
+        }
+        return true;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class ShardCursor {
+        private final Iterator<User> iterator;
+        private User head;
+
+        ShardCursor(Iterator<User> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        boolean advance() {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            head = iterator.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ivan.usermanagement.service.impl;
+
+
+import com.ivan.usermanagement.dto.UserBatchDto;
+import com.ivan.usermanagement.dto.UserDto;
+import com.ivan.usermanagement.exception.InvalidRequestException;
+import com.ivan.usermanagement.exception.ReadOnlyReplicaException;
+import com.ivan.usermanagement.exception.ResourceNotFoundException;
+import com.ivan.usermanagement.service.UserService;
+import com.ivan.usermanagement.snapshot.UserDirectory;
+import com.ivan.usermanagement.snapshot.UserSnapshot;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+/**
+ * Read-only {@link UserService} for edge replicas, active with the {@code snapshot} profile.
+ * Reads are answered from the in-memory {@link UserDirectory} without touching the database;
+ * writes are rejected and belong on the primary instances.
+ */
+@Service
+@Profile("snapshot")
+public class SnapshotUserServiceImpl implements UserService {
+
+    private final UserSnapshot userSnapshot;
+
+    public SnapshotUserServiceImpl(UserSnapshot userSnapshot) {
+        this.userSnapshot = userSnapshot;
+    }
+
+    @Override
+    public UserDto createUser(UserDto userDto) {
+        throw readOnly();
+    }
+
+    @Override
+    public UserDto getUserById(Long id) {
+        UserDirectory directory = userSnapshot.current();
+        int index = directory.indexOf(id);
+        if (index < 0) {
+            throw new ResourceNotFoundException("User not found with id: " + id);
+        }
+        return toDto(directory, index);
+    }
+
+    @Override
+    public UserDto getUserByEmail(String email) {
+        UserDirectory directory = userSnapshot.current();
+        int index = directory.indexOfEmail(email);
+        if (index < 0) {
+            throw new ResourceNotFoundException("User not found with email: " + email);
+        }
+        return toDto(directory, index);
+    }
+
+    @Override
+    public UserBatchDto getUsersByIds(List<Long> ids) {
+        if (ids.size() > MAX_IDS_PER_REQUEST) {
+            throw new InvalidRequestException("At most " + MAX_IDS_PER_REQUEST + " ids per request, got " + ids.size());
+        }
+        UserDirectory directory = userSnapshot.current();
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        List<UserDto> users = new ArrayList<>(requested.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            int index = directory.indexOf(id);
+            if (index >= 0) {
+                users.add(toDto(directory, index));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new UserBatchDto(users, missingIds);
+    }
+
+    @Override
+    public List<UserDto> getAllUsers() {
+        UserDirectory directory = userSnapshot.current();
+        List<UserDto> users = new ArrayList<>(directory.size());
+        for (PrimitiveIterator.OfInt indexes = directory.indexes(); indexes.hasNext(); ) {
+            users.add(toDto(directory, indexes.nextInt()));
+        }
+        return users;
+    }
+
+    @Override
+    public UserDto updateUser(Long id, UserDto userDto) {
+        throw readOnly();
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        throw readOnly();
+    }
+
+    private static UserDto toDto(UserDirectory directory, int index) {
+        return new UserDto(
+                directory.idAt(index),
+                directory.firstNameAt(index),
+                directory.lastNameAt(index),
+                directory.emailAt(index),
+                directory.dateOfBirthAt(index)
+        );
+    }
+
+    private static ReadOnlyReplicaException readOnly() {
+        return new ReadOnlyReplicaException("This instance serves a read-only user snapshot; send writes to the primary");
+    }
+}
@@ -1,26 +1,50 @@
 package com.ivan.usermanagement.service.impl;
 
 
+import com.ivan.usermanagement.config.CacheConfig;
+import com.ivan.usermanagement.dto.UserBatchDto;
 import com.ivan.usermanagement.dto.UserDto;
 import com.ivan.usermanagement.entity.User;
+import com.ivan.usermanagement.exception.InvalidRequestException;
 import com.ivan.usermanagement.exception.ResourceNotFoundException;
 import com.ivan.usermanagement.mapper.UserMapper;
 import com.ivan.usermanagement.repository.UserRepository;
 import com.ivan.usermanagement.service.UserService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
+@Profile("!reactive & !sharding & !snapshot")
+@Transactional
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final CacheManager cacheManager;
 
-    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper) {
+    /**
+     * Incremented by every finished write just before it evicts its cache entry. Multi-get compares it
+     * before and after filling the cache to detect a write that finished while it was reading.
+     */
+    private final AtomicLong finishedWrites = new AtomicLong();
+
+    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, CacheManager cacheManager) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.cacheManager = cacheManager;
     }
 
     @Override
@@ -31,6 +55,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
@@ -38,6 +63,71 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public UserDto getUserByEmail(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+        return userMapper.toDto(user);
+    }
+
+    /**
+     * Served from the {@link CacheConfig#USERS_CACHE} cache first; the remaining ids are read with a single
+     * IN query, as {@link #MAX_IDS_PER_REQUEST} keeps the list short and IN list padding keeps the number of
+     * statement shapes small. Entries are copied in and out so callers never share an instance with the cache.
+     * <p>
+     * A row read just before a write commits could be put after that write's eviction; if any write
+     * finished meanwhile, the entries filled by this call are evicted again.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UserBatchDto getUsersByIds(List<Long> ids) {
+        if (ids.size() > MAX_IDS_PER_REQUEST) {
+            throw new InvalidRequestException("At most " + MAX_IDS_PER_REQUEST + " ids per request, got " + ids.size());
+        }
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+
+        Cache cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        Map<Long, UserDto> found = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : requested) {
+            UserDto cached = cache.get(id, UserDto.class);
+            if (cached != null) {
+                found.put(id, copyOf(cached));
+            } else {
+                uncached.add(id);
+            }
+        }
+
+        if (!uncached.isEmpty()) {
+            long writesBefore = finishedWrites.get();
+            List<Long> filled = new ArrayList<>();
+            for (User user : userRepository.findAllById(uncached)) {
+                UserDto userDto = userMapper.toDto(user);
+                found.put(user.getId(), userDto);
+                cache.put(user.getId(), copyOf(userDto));
+                filled.add(user.getId());
+            }
+            if (finishedWrites.get() != writesBefore) {
+                filled.forEach(cache::evict);
+            }
+        }
+
+        List<UserDto> users = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            UserDto userDto = found.get(id);
+            if (userDto != null) {
+                users.add(userDto);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new UserBatchDto(users, missingIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         return userRepository.findAll()
                 .stream()
@@ -49,6 +139,7 @@ public class UserServiceImpl implements UserService {
     public UserDto updateUser(Long id, UserDto userDto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        evictWhenFinished(id);
 
         user.setFirstName(userDto.getFirstName());
         user.setLastName(userDto.getLastName());
@@ -64,6 +155,35 @@ public class UserServiceImpl implements UserService {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
+        evictWhenFinished(id);
         userRepository.deleteById(id);
+        userRepository.recordDeletion(id);
+    }
+
+    /**
+     * Evict the user's cache entry once the surrounding transaction has completed, so a multi-get cannot
+     * re-cache the row between the eviction and the commit.
+     */
+    private void evictWhenFinished(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(id);
+            }
+        });
+    }
+
+    private void evict(Long id) {
+        finishedWrites.incrementAndGet();
+        cacheManager.getCache(CacheConfig.USERS_CACHE).evict(id);
+    }
+
+    private static UserDto copyOf(UserDto userDto) {
+        return new UserDto(userDto.getId(), userDto.getFirstName(), userDto.getLastName(),
+                userDto.getEmail(), userDto.getDateOfBirth());
     }
 }
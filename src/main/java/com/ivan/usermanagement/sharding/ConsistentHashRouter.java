@@ -0,0 +1,76 @@
+package com.ivan.usermanagement.sharding;
+
+import java.util.Arrays;
+
+/**
+ * Maps user ids to shard indexes with a consistent-hash ring.
+ * <p>
+ * Each shard owns {@code virtualNodes} points on a 64-bit ring; an id belongs to the first point
+ * at or after its hash. Adding a shard therefore only moves the ids that land on the new shard's
+ * points instead of reshuffling every user. The ring is immutable and lookups are a binary search
+ * over a primitive array.
+ */
+public class ConsistentHashRouter {
+
+    private final int shardCount;
+    private final long[] points;
+    private final int[] owners;
+
+    public ConsistentHashRouter(int shardCount, int virtualNodes) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("At least one virtual node per shard is required");
+        }
+        this.shardCount = shardCount;
+
+        int size = shardCount * virtualNodes;
+        long[][] ring = new long[size][];
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                ring[shard * virtualNodes + v] = new long[]{mix(((long) shard << 32) | v), shard};
+            }
+        }
+        Arrays.sort(ring, (a, b) -> Long.compareUnsigned(a[0], b[0]));
+
+        this.points = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = ring[i][0];
+            owners[i] = (int) ring[i][1];
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(long id) {
+        long hash = mix(id);
+        int low = 0;
+        int high = points.length - 1;
+        if (Long.compareUnsigned(hash, points[high]) > 0) {
+            return owners[0];
+        }
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(points[mid], hash) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return owners[low];
+    }
+
+    /**
+     * SplitMix64 finalizer: spreads sequential ids (and virtual node keys) evenly over the ring.
+     */
+    static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,579 @@
+package com.ivan.usermanagement.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable, compact copy of the {@code users} table for read-only replicas.
+ * <p>
+ * Fixed-size fields live in primitive arrays indexed by position: ids sorted ascending, birth dates as
+ * epoch days and one packed record address per user. Names and emails are stored UTF-8 encoded, length
+ * prefixed, in off-heap segments, so millions of users cost a few large objects instead of millions of
+ * strings. Emails are indexed by an open-addressing table of positions.
+ * <p>
+ * Users changed or deleted after the directory was built are kept in a small overlay that is consulted
+ * before the packed base and hides the base records it replaces or deletes.
+ * {@link #withChanges(List, Collection)} only rebuilds the overlay; the base is shared between directories
+ * until {@link #compact()} folds the overlay into a new one.
+ * <p>
+ * {@link #indexOf(long)} and {@link #indexOfEmail(String)} neither allocate nor block; only the accessors
+ * that materialize a field create objects. Instances are safe to share between threads.
+ */
+public final class UserDirectory {
+
+    /** Default segment size: 64 MiB. */
+    public static final int DEFAULT_SEGMENT_BITS = 26;
+
+    private static final int MAX_FIELD_BYTES = 0xFFFF;
+    private static final Entry[] NO_CHANGES = new Entry[0];
+    private static final long[] NO_IDS = new long[0];
+    private static final UserDirectory EMPTY = new Builder(0, 0).build();
+
+    private final int baseSize;
+    private final long[] ids;
+    private final int[] birthDays;
+    private final int[] emailHashes;
+    private final long[] addresses;
+    private final int[] emailTable;
+    private final ByteBuffer[] segments;
+    private final int segmentBits;
+    private final long storageBytes;
+
+    /** Changed and new users sorted by id, with their ids and email hashes in matching arrays. */
+    private final Entry[] changes;
+    private final long[] changedIds;
+    private final int[] changedEmailHashes;
+    private final int[] changedEmailTable;
+    /** Ids of deleted base users, sorted; never also in {@link #changedIds}. */
+    private final long[] deletedIds;
+    private final int size;
+
+    private UserDirectory(int size, long[] ids, int[] birthDays, int[] emailHashes, long[] addresses,
+                          ByteBuffer[] segments, int segmentBits, long storageBytes) {
+        this.baseSize = size;
+        this.ids = ids;
+        this.birthDays = birthDays;
+        this.emailHashes = emailHashes;
+        this.addresses = addresses;
+        this.segments = segments;
+        this.segmentBits = segmentBits;
+        this.storageBytes = storageBytes;
+        this.emailTable = emailTable(emailHashes, size);
+        this.changes = NO_CHANGES;
+        this.changedIds = NO_IDS;
+        this.changedEmailHashes = new int[0];
+        this.changedEmailTable = emailTable(changedEmailHashes, 0);
+        this.deletedIds = NO_IDS;
+        this.size = size;
+    }
+
+    private UserDirectory(UserDirectory base, Entry[] changes, long[] deletedIds) {
+        this.baseSize = base.baseSize;
+        this.ids = base.ids;
+        this.birthDays = base.birthDays;
+        this.emailHashes = base.emailHashes;
+        this.addresses = base.addresses;
+        this.segments = base.segments;
+        this.segmentBits = base.segmentBits;
+        this.storageBytes = base.storageBytes;
+        this.emailTable = base.emailTable;
+        this.changes = changes;
+        this.changedIds = new long[changes.length];
+        this.changedEmailHashes = new int[changes.length];
+        int replaced = 0;
+        for (int i = 0; i < changes.length; i++) {
+            changedIds[i] = changes[i].id();
+            changedEmailHashes[i] = emailHash(changes[i].email());
+            if (baseIndexOf(changedIds[i]) >= 0) {
+                replaced++;
+            }
+        }
+        this.changedEmailTable = emailTable(changedEmailHashes, changes.length);
+        this.deletedIds = deletedIds;
+        this.size = baseSize - replaced - deletedIds.length + changes.length;
+    }
+
+    public static UserDirectory empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder(int expectedUsers, long expectedStorageBytes) {
+        return new Builder(expectedUsers, expectedStorageBytes);
+    }
+
+    /**
+     * @return the number of users, counting base and overlay together
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of changed and deleted users held in the overlay, waiting for the next compaction
+     */
+    public int pendingChanges() {
+        return changes.length + deletedIds.length;
+    }
+
+    /**
+     * @return the position of the user with this id, or -1 if absent
+     */
+    public int indexOf(long id) {
+        int changed = Arrays.binarySearch(changedIds, id);
+        if (changed >= 0) {
+            return baseSize + changed;
+        }
+        return visibleBaseIndexOf(id);
+    }
+
+    /**
+     * Case-insensitive email lookup, matching the default collation of the MySQL column.
+     *
+     * @return the position of the user with this email, or -1 if absent
+     */
+    public int indexOfEmail(String email) {
+        int hash = emailHash(email);
+        int mask = changedEmailTable.length - 1;
+        for (int slot = spread(hash) & mask; changedEmailTable[slot] != 0; slot = (slot + 1) & mask) {
+            int changed = changedEmailTable[slot] - 1;
+            if (changedEmailHashes[changed] == hash && sameEmail(changes[changed].email(), email)) {
+                return baseSize + changed;
+            }
+        }
+        if (baseSize == 0) {
+            return -1;
+        }
+        mask = emailTable.length - 1;
+        for (int slot = spread(hash) & mask; emailTable[slot] != 0; slot = (slot + 1) & mask) {
+            int index = emailTable[slot] - 1;
+            if (emailHashes[index] == hash && emailEquals(index, email)) {
+                // A replaced or deleted record still carries its old email
+                return isHidden(index) ? -1 : index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Positions of all users in ascending id order.
+     */
+    public PrimitiveIterator.OfInt indexes() {
+        return new PrimitiveIterator.OfInt() {
+            private int base = nextVisible(0);
+            private int changed = 0;
+
+            @Override
+            public boolean hasNext() {
+                return base < baseSize || changed < changes.length;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (changed == changes.length || (base < baseSize && ids[base] < changedIds[changed])) {
+                    int index = base;
+                    base = nextVisible(base + 1);
+                    return index;
+                }
+                return baseSize + changed++;
+            }
+        };
+    }
+
+    public long idAt(int index) {
+        return index < baseSize ? ids[index] : changedIds[index - baseSize];
+    }
+
+    public LocalDate dateOfBirthAt(int index) {
+        return index < baseSize ? LocalDate.ofEpochDay(birthDays[index]) : changes[index - baseSize].dateOfBirth();
+    }
+
+    public String firstNameAt(int index) {
+        return index < baseSize ? field(index, 0) : changes[index - baseSize].firstName();
+    }
+
+    public String lastNameAt(int index) {
+        return index < baseSize ? field(index, 1) : changes[index - baseSize].lastName();
+    }
+
+    public String emailAt(int index) {
+        return index < baseSize ? field(index, 2) : changes[index - baseSize].email();
+    }
+
+    /**
+     * @return true if the directory already holds this user with exactly these field values
+     */
+    public boolean contains(Entry entry) {
+        int changed = Arrays.binarySearch(changedIds, entry.id());
+        if (changed >= 0) {
+            return changes[changed].equals(entry);
+        }
+        int index = visibleBaseIndexOf(entry.id());
+        if (index < 0 || birthDays[index] != (int) entry.dateOfBirth().toEpochDay()) {
+            return false;
+        }
+        ByteBuffer segment = segment(index);
+        int position = offset(index);
+        for (String value : new String[]{entry.firstName(), entry.lastName(), entry.email()}) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = segment.getShort(position) & 0xFFFF;
+            if (length != bytes.length || !segment.slice(position + 2, length).equals(ByteBuffer.wrap(bytes))) {
+                return false;
+            }
+            position += 2 + length;
+        }
+        return true;
+    }
+
+    /**
+     * Bytes held by the packed base: the primitive arrays plus the off-heap segments. The overlay is
+     * not counted.
+     */
+    public long memoryBytes() {
+        return 8L * ids.length + 4L * birthDays.length + 4L * emailHashes.length + 8L * addresses.length
+                + 4L * emailTable.length + storageBytes;
+    }
+
+    /**
+     * Returns a directory where every given user replaces the entry with the same id, or is added.
+     * The packed base is shared with this directory; only the overlay of changed users is rebuilt,
+     * so the cost grows with the number of pending changes, not with the number of users.
+     */
+    public UserDirectory withChanges(List<Entry> changed) {
+        return withChanges(changed, List.of());
+    }
+
+    /**
+     * Like {@link #withChanges(List)}, then removes the deleted users. A delete wins over a change to the
+     * same user, and deleting a user that is not in the directory is ignored.
+     */
+    public UserDirectory withChanges(List<Entry> changed, Collection<Long> deleted) {
+        TreeMap<Long, Entry> merged = new TreeMap<>();
+        for (Entry entry : changes) {
+            merged.put(entry.id(), entry);
+        }
+        TreeSet<Long> hidden = new TreeSet<>();
+        for (long id : deletedIds) {
+            hidden.add(id);
+        }
+        boolean modified = !changed.isEmpty();
+        for (Entry entry : changed) {
+            merged.put(entry.id(), entry);
+            hidden.remove(entry.id());
+        }
+        for (Long id : deleted) {
+            if (merged.remove(id) != null) {
+                modified = true;
+            }
+            if (baseIndexOf(id) >= 0 && hidden.add(id)) {
+                modified = true;
+            }
+        }
+        if (!modified) {
+            return this;
+        }
+        long[] deletedIds = new long[hidden.size()];
+        int i = 0;
+        for (Long id : hidden) {
+            deletedIds[i++] = id;
+        }
+        return new UserDirectory(this, merged.values().toArray(NO_CHANGES), deletedIds);
+    }
+
+    /**
+     * Returns a directory with the same users where the overlay is folded into a newly packed base.
+     * Base records are copied byte for byte, so nothing is read from the database and no strings are
+     * created for them; the cost is one pass over the packed storage.
+     */
+    public UserDirectory compact() {
+        if (pendingChanges() == 0) {
+            return this;
+        }
+        Builder builder = new Builder(size, storageBytes + 64L * changes.length, segmentBits);
+        for (PrimitiveIterator.OfInt indexes = indexes(); indexes.hasNext(); ) {
+            int index = indexes.nextInt();
+            if (index < baseSize) {
+                ByteBuffer segment = segment(index);
+                int offset = offset(index);
+                builder.copy(ids[index], birthDays[index], emailHashes[index], segment, offset,
+                        fieldPosition(segment, offset, 3) - offset);
+            } else {
+                builder.add(changes[index - baseSize]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return true if both directories use the same packed base
+     */
+    boolean sharesBaseWith(UserDirectory other) {
+        return ids == other.ids && segments == other.segments;
+    }
+
+    private int baseIndexOf(long id) {
+        int index = Arrays.binarySearch(ids, 0, baseSize, id);
+        return index >= 0 ? index : -1;
+    }
+
+    private int visibleBaseIndexOf(long id) {
+        if (deletedIds.length > 0 && Arrays.binarySearch(deletedIds, id) >= 0) {
+            return -1;
+        }
+        return baseIndexOf(id);
+    }
+
+    private boolean isHidden(int index) {
+        return (changedIds.length > 0 && Arrays.binarySearch(changedIds, ids[index]) >= 0)
+                || (deletedIds.length > 0 && Arrays.binarySearch(deletedIds, ids[index]) >= 0);
+    }
+
+    private int nextVisible(int index) {
+        while (index < baseSize && isHidden(index)) {
+            index++;
+        }
+        return index;
+    }
+
+    private String field(int index, int field) {
+        ByteBuffer segment = segment(index);
+        int position = fieldPosition(segment, offset(index), field);
+        int length = segment.getShort(position) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        segment.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean emailEquals(int index, String email) {
+        ByteBuffer segment = segment(index);
+        int position = fieldPosition(segment, offset(index), 2);
+        int end = position + 2 + (segment.getShort(position) & 0xFFFF);
+        position += 2;
+        int i = 0;
+        while (position < end) {
+            int b = segment.get(position) & 0xFF;
+            int codePoint;
+            if (b < 0x80) {
+                codePoint = b;
+                position += 1;
+            } else if (b < 0xE0) {
+                codePoint = ((b & 0x1F) << 6) | (segment.get(position + 1) & 0x3F);
+                position += 2;
+            } else if (b < 0xF0) {
+                codePoint = ((b & 0x0F) << 12) | ((segment.get(position + 1) & 0x3F) << 6)
+                        | (segment.get(position + 2) & 0x3F);
+                position += 3;
+            } else {
+                codePoint = ((b & 0x07) << 18) | ((segment.get(position + 1) & 0x3F) << 12)
+                        | ((segment.get(position + 2) & 0x3F) << 6) | (segment.get(position + 3) & 0x3F);
+                position += 4;
+            }
+            if (i >= email.length()) {
+                return false;
+            }
+            int expected = email.codePointAt(i);
+            if (Character.toLowerCase(codePoint) != Character.toLowerCase(expected)) {
+                return false;
+            }
+            i += Character.charCount(expected);
+        }
+        return i == email.length();
+    }
+
+    private ByteBuffer segment(int index) {
+        return segments[(int) (addresses[index] >>> segmentBits)];
+    }
+
+    private int offset(int index) {
+        return (int) (addresses[index] & ((1L << segmentBits) - 1));
+    }
+
+    private static int fieldPosition(ByteBuffer segment, int position, int field) {
+        for (int i = 0; i < field; i++) {
+            position += 2 + (segment.getShort(position) & 0xFFFF);
+        }
+        return position;
+    }
+
+    static int emailHash(String email) {
+        int hash = 0;
+        for (int i = 0; i < email.length(); ) {
+            int codePoint = email.codePointAt(i);
+            hash = 31 * hash + Character.toLowerCase(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return hash;
+    }
+
+    private static boolean sameEmail(String stored, String email) {
+        int i = 0;
+        int j = 0;
+        while (i < stored.length() && j < email.length()) {
+            int a = stored.codePointAt(i);
+            int b = email.codePointAt(j);
+            if (Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+            i += Character.charCount(a);
+            j += Character.charCount(b);
+        }
+        return i == stored.length() && j == email.length();
+    }
+
+    private static int[] emailTable(int[] hashes, int count) {
+        int[] table = new int[tableCapacity(count)];
+        int mask = table.length - 1;
+        for (int i = 0; i < count; i++) {
+            int slot = spread(hashes[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableCapacity(int size) {
+        int capacity = 2;
+        while (capacity < 2L * size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * One user as read from the database.
+     */
+    public record Entry(long id, String firstName, String lastName, String email, LocalDate dateOfBirth) {
+    }
+
+    /**
+     * Collects users in ascending id order and packs them into a {@link UserDirectory}.
+     */
+    public static final class Builder {
+
+        private final int segmentBits;
+        private final int segmentCapacity;
+        private final List<ByteBuffer> segments = new ArrayList<>();
+        private ByteBuffer current;
+        private long storageBytes;
+        private int size;
+        private long[] ids;
+        private int[] birthDays;
+        private int[] emailHashes;
+        private long[] addresses;
+
+        private Builder(int expectedUsers, long expectedStorageBytes) {
+            this(expectedUsers, expectedStorageBytes, DEFAULT_SEGMENT_BITS);
+        }
+
+        Builder(int expectedUsers, long expectedStorageBytes, int segmentBits) {
+            int capacity = Math.max(16, expectedUsers);
+            this.segmentBits = segmentBits;
+            this.segmentCapacity = 1 << segmentBits;
+            this.ids = new long[capacity];
+            this.birthDays = new int[capacity];
+            this.emailHashes = new int[capacity];
+            this.addresses = new long[capacity];
+            this.current = ByteBuffer.allocateDirect((int) Math.min(segmentCapacity, Math.max(4096, expectedStorageBytes)));
+            segments.add(current);
+        }
+
+        public Builder add(Entry entry) {
+            return add(entry.id(), entry.firstName(), entry.lastName(), entry.email(), entry.dateOfBirth());
+        }
+
+        public Builder add(long id, String firstName, String lastName, String email, LocalDate dateOfBirth) {
+            byte[] first = encode(firstName);
+            byte[] last = encode(lastName);
+            byte[] mail = encode(email);
+            int recordLength = 6 + first.length + last.length + mail.length;
+            long address = reserve(id, recordLength);
+            current.putShort((short) first.length).put(first)
+                    .putShort((short) last.length).put(last)
+                    .putShort((short) mail.length).put(mail);
+            append(id, (int) dateOfBirth.toEpochDay(), emailHash(email), address);
+            return this;
+        }
+
+        /**
+         * Append a record already packed by another directory.
+         */
+        private void copy(long id, int birthDay, int emailHash, ByteBuffer source, int offset, int length) {
+            long address = reserve(id, length);
+            current.put(source.slice(offset, length));
+            append(id, birthDay, emailHash, address);
+        }
+
+        public UserDirectory build() {
+            ByteBuffer last = segments.get(segments.size() - 1);
+            if (last.position() < last.capacity()) {
+                ByteBuffer trimmed = ByteBuffer.allocateDirect(Math.max(1, last.position()));
+                trimmed.put(last.flip());
+                segments.set(segments.size() - 1, trimmed);
+            }
+            ByteBuffer[] readOnly = new ByteBuffer[segments.size()];
+            for (int i = 0; i < readOnly.length; i++) {
+                readOnly[i] = segments.get(i).asReadOnlyBuffer();
+            }
+            return new UserDirectory(size, Arrays.copyOf(ids, size), Arrays.copyOf(birthDays, size),
+                    Arrays.copyOf(emailHashes, size), Arrays.copyOf(addresses, size), readOnly, segmentBits,
+                    storageBytes);
+        }
+
+        private long reserve(long id, int recordLength) {
+            if (size > 0 && id <= ids[size - 1]) {
+                throw new IllegalArgumentException("Users must be added in ascending id order: " + id
+                        + " after " + ids[size - 1]);
+            }
+            if (recordLength > segmentCapacity) {
+                throw new IllegalArgumentException("User " + id + " does not fit in a storage segment");
+            }
+            if (current.remaining() < recordLength) {
+                current = ByteBuffer.allocateDirect(segmentCapacity);
+                segments.add(current);
+            }
+            storageBytes += recordLength;
+            return ((long) (segments.size() - 1) << segmentBits) | current.position();
+        }
+
+        private void append(long id, int birthDay, int emailHash, long address) {
+            if (size == ids.length) {
+                int capacity = ids.length + (ids.length >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                birthDays = Arrays.copyOf(birthDays, capacity);
+                emailHashes = Arrays.copyOf(emailHashes, capacity);
+                addresses = Arrays.copyOf(addresses, capacity);
+            }
+            ids[size] = id;
+            birthDays[size] = birthDay;
+            emailHashes[size] = emailHash;
+            addresses[size] = address;
+            size++;
+        }
+
+        private static byte[] encode(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_FIELD_BYTES) {
+                throw new IllegalArgumentException("Field longer than " + MAX_FIELD_BYTES + " bytes");
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ivan.usermanagement.snapshot;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the {@code users} table for {@link UserSnapshot}: either completely, streamed straight into a
+ * {@link UserDirectory.Builder}, or only the rows whose {@code updated_at} is at or after a watermark,
+ * together with the {@code user_deletions} tombstones written since then.
+ */
+public class UserDirectoryLoader {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, date_of_birth, updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserDirectoryLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Result loadAll() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        int expected = count == null ? 0 : count;
+        UserDirectory.Builder builder = UserDirectory.builder(expected, 64L * expected);
+        // Tombstones up to here are already reflected in the table; without this an empty or never
+        // updated table would make the next incremental refresh read every tombstone
+        LocalDateTime[] watermark = {later(null,
+                jdbcTemplate.queryForObject("SELECT MAX(deleted_at) FROM user_deletions", Timestamp.class))};
+        jdbcTemplate.query("SELECT " + COLUMNS + " FROM users ORDER BY id", rs -> {
+            builder.add(toEntry(rs));
+            watermark[0] = later(watermark[0], rs.getTimestamp("updated_at"));
+        });
+        return new Result(builder.build(), List.of(), List.of(), watermark[0]);
+    }
+
+    /**
+     * Served by the indexes on {@code updated_at} and {@code deleted_at}; rows come back unordered,
+     * {@link UserDirectory#withChanges} sorts them. Tombstones are read after the users, so a row deleted
+     * between the two queries is returned as both changed and deleted, and the delete wins.
+     *
+     * @return the changed rows, the deleted ids, and the latest {@code updated_at} or {@code deleted_at}
+     */
+    public Result loadChangedSince(LocalDateTime since) {
+        List<UserDirectory.Entry> changes = new ArrayList<>();
+        LocalDateTime[] watermark = {since};
+        jdbcTemplate.query("SELECT " + COLUMNS + " FROM users WHERE updated_at >= ?", rs -> {
+            changes.add(toEntry(rs));
+            watermark[0] = later(watermark[0], rs.getTimestamp("updated_at"));
+        }, Timestamp.valueOf(since));
+        List<Long> deletedIds = new ArrayList<>();
+        jdbcTemplate.query("SELECT user_id, deleted_at FROM user_deletions WHERE deleted_at >= ?", rs -> {
+            deletedIds.add(rs.getLong("user_id"));
+            watermark[0] = later(watermark[0], rs.getTimestamp("deleted_at"));
+        }, Timestamp.valueOf(since));
+        return new Result(null, changes, deletedIds, watermark[0]);
+    }
+
+    private static UserDirectory.Entry toEntry(ResultSet rs) throws SQLException {
+        return new UserDirectory.Entry(
+                rs.getLong("id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                rs.getDate("date_of_birth").toLocalDate()
+        );
+    }
+
+    private static LocalDateTime later(LocalDateTime current, Timestamp candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        LocalDateTime value = candidate.toLocalDateTime();
+        return current == null || value.isAfter(current) ? value : current;
+    }
+
+    /**
+     * A full load carries the new directory; an incremental load carries the changed rows and deleted ids.
+     */
+    public record Result(UserDirectory directory, List<UserDirectory.Entry> changes, List<Long> deletedIds,
+                         LocalDateTime watermark) {
+    }
+}
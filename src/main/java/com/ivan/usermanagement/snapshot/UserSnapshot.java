@@ -0,0 +1,118 @@
+package com.ivan.usermanagement.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the current {@link UserDirectory} and keeps it up to date on a background thread.
+ * <p>
+ * Every refresh fetches the rows changed and the users deleted since the last watermark and applies them to
+ * the directory's overlay; the packed base is left as it is, and readers keep using the previous directory
+ * until the swap. Once the overlay holds {@code maxPendingChanges} users it is compacted into a new packed
+ * base in memory, without reading the table again. A full load every {@code fullRefreshInterval} is only a
+ * safety net for rows an incremental refresh missed, such as a commit delayed past the watermark overlap.
+ * A failed refresh is logged and the replica keeps serving its last snapshot.
+ */
+public class UserSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSnapshot.class);
+
+    /** Watermark used when no loaded row has an {@code updated_at} yet. */
+    private static final LocalDateTime INITIAL_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UserDirectoryLoader loader;
+    private final Duration refreshInterval;
+    private final Duration fullRefreshInterval;
+    private final Duration watermarkOverlap;
+    private final int maxPendingChanges;
+    private volatile UserDirectory directory = UserDirectory.empty();
+    private LocalDateTime watermark;
+    private long lastFullRefreshNanos;
+    private ScheduledExecutorService scheduler;
+
+    public UserSnapshot(UserDirectoryLoader loader, Duration refreshInterval, Duration fullRefreshInterval,
+                        Duration watermarkOverlap, int maxPendingChanges) {
+        this.loader = loader;
+        this.refreshInterval = refreshInterval;
+        this.fullRefreshInterval = fullRefreshInterval;
+        this.watermarkOverlap = watermarkOverlap;
+        this.maxPendingChanges = maxPendingChanges;
+    }
+
+    public UserDirectory current() {
+        return directory;
+    }
+
+    /**
+     * Load the full table, then schedule periodic refreshes.
+     */
+    public synchronized void start() {
+        refreshFull();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshSafely, refreshInterval.toMillis(),
+                refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public synchronized void refresh() {
+        if (watermark == null || System.nanoTime() - lastFullRefreshNanos >= fullRefreshInterval.toNanos()) {
+            refreshFull();
+            return;
+        }
+        // Rows committed late with an older timestamp are caught by re-reading a short overlap window;
+        // rows from that window which were already applied are dropped so they do not force a rebuild
+        UserDirectoryLoader.Result result = loader.loadChangedSince(watermark.minus(watermarkOverlap));
+        UserDirectory current = directory;
+        List<UserDirectory.Entry> changes = new ArrayList<>(result.changes());
+        changes.removeIf(current::contains);
+        UserDirectory next = current.withChanges(changes, result.deletedIds());
+        if (next.pendingChanges() >= maxPendingChanges) {
+            next = compact(next);
+        }
+        directory = next;
+        watermark = result.watermark();
+    }
+
+    private static UserDirectory compact(UserDirectory directory) {
+        long start = System.nanoTime();
+        UserDirectory compacted = directory.compact();
+        log.info("Compacted user snapshot: {} users, {} bytes, {} ms", compacted.size(), compacted.memoryBytes(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return compacted;
+    }
+
+    private void refreshFull() {
+        long start = System.nanoTime();
+        UserDirectoryLoader.Result result = loader.loadAll();
+        directory = result.directory();
+        watermark = result.watermark() != null ? result.watermark() : INITIAL_WATERMARK;
+        lastFullRefreshNanos = System.nanoTime();
+        log.info("Loaded user snapshot: {} users, {} bytes, {} ms", directory.size(), directory.memoryBytes(),
+                TimeUnit.NANOSECONDS.toMillis(lastFullRefreshNanos - start));
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("User snapshot refresh failed, serving the previous snapshot: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.ivan.usermanagement.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mutable state of one request while it is being traced. Confined to the request thread.
+ */
+public class RequestTrace {
+
+    private final String traceId;
+    private final OpenSpan root;
+    private final Deque<OpenSpan> openSpans = new ArrayDeque<>();
+    private final List<Span> spans = new ArrayList<>();
+    private final List<OpenSpan> foldedSpans = new ArrayList<>();
+    private final Map<String, Integer> statementCounts = new LinkedHashMap<>();
+    private final Map<String, Long> layerNanos = new LinkedHashMap<>();
+    private final List<String> warnings = new ArrayList<>();
+    private OpenSpan lastFolded;
+    private int statementCount;
+    private long durationNanos;
+
+    RequestTrace(String name, Map<String, String> tags) {
+        this.traceId = newId() + newId();
+        this.root = new OpenSpan(newId(), null, name, "SERVER", null, false);
+        root.tags.putAll(tags);
+        openSpans.push(root);
+    }
+
+    /**
+     * @param fold merge this span into the previous one when both are successful calls of the same
+     *             method under the same parent with no other span ending in between; the merged span
+     *             covers the summed time and carries a {@code calls} tag. Meant for cheap per-item calls
+     *             such as mapping, which would otherwise add one span per row.
+     */
+    void startSpan(String name, String layer, boolean fold) {
+        openSpans.push(new OpenSpan(newId(), openSpans.peek().id, name, null, layer, fold));
+    }
+
+    void endSpan(Throwable error) {
+        if (openSpans.size() <= 1) {
+            return;
+        }
+        OpenSpan span = openSpans.pop();
+        if (error != null) {
+            span.tags.put("error", error.getClass().getSimpleName());
+        }
+        long elapsed = System.nanoTime() - span.startNanos;
+        layerNanos.merge(span.layer, elapsed, Long::sum);
+        if (span.fold && error == null) {
+            if (lastFolded != null && lastFolded.parentId.equals(span.parentId) && lastFolded.name.equals(span.name)) {
+                lastFolded.calls++;
+                lastFolded.elapsedNanos += elapsed;
+                lastFolded.statementCount += span.statementCount;
+            } else {
+                span.calls = 1;
+                span.elapsedNanos = elapsed;
+                foldedSpans.add(span);
+                lastFolded = span;
+            }
+            return;
+        }
+        lastFolded = null;
+        spans.add(span.finish(traceId, elapsed));
+    }
+
+    void recordStatement(String sql) {
+        statementCount++;
+        statementCounts.merge(sql, 1, Integer::sum);
+        for (OpenSpan span : openSpans) {
+            span.statementCount++;
+        }
+    }
+
+    void end(Map<String, String> tags) {
+        while (openSpans.size() > 1) {
+            endSpan(null);
+        }
+        durationNanos = System.nanoTime() - root.startNanos;
+        root.tags.putAll(tags);
+    }
+
+    void warn(String warning) {
+        warnings.add(warning);
+    }
+
+    /**
+     * All spans of the request, root first. Only complete once the request has ended.
+     */
+    List<Span> finishedSpans() {
+        if (!warnings.isEmpty()) {
+            root.tags.put("perf.warnings", String.join("; ", warnings));
+        }
+        List<Span> all = new ArrayList<>(spans.size() + foldedSpans.size() + 1);
+        all.add(root.finish(traceId, durationNanos));
+        all.addAll(spans);
+        for (OpenSpan folded : foldedSpans) {
+            all.add(folded.finish(traceId, folded.elapsedNanos));
+        }
+        return all;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getName() {
+        return root.name;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * Execution count per distinct SQL string, in first-seen order.
+     */
+    public Map<String, Integer> getStatementCounts() {
+        return Collections.unmodifiableMap(statementCounts);
+    }
+
+    /**
+     * Summed span time per layer (controller, service, mapper, repository). Layers nest, so the
+     * values overlap: the controller figure includes the service figure.
+     */
+    public Map<String, Long> getLayerMillis() {
+        Map<String, Long> millis = new LinkedHashMap<>();
+        layerNanos.forEach((layer, nanos) -> millis.put(layer, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        return millis;
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    public List<String> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    private static String newId() {
+        return String.format("%016x", ThreadLocalRandom.current().nextLong());
+    }
+
+    private static final class OpenSpan {
+        private final String id;
+        private final String parentId;
+        private final String name;
+        private final String kind;
+        private final String layer;
+        private final boolean fold;
+        private final long timestamp = System.currentTimeMillis() * 1000;
+        private final long startNanos = System.nanoTime();
+        private final Map<String, String> tags = new LinkedHashMap<>();
+        private int statementCount;
+        private int calls;
+        private long elapsedNanos;
+
+        OpenSpan(String id, String parentId, String name, String kind, String layer, boolean fold) {
+            this.id = id;
+            this.parentId = parentId;
+            this.name = name;
+            this.kind = kind;
+            this.layer = layer;
+            this.fold = fold;
+        }
+
+        Span finish(String traceId, long elapsedNanos) {
+            Map<String, String> finalTags = new LinkedHashMap<>(tags);
+            if (layer != null) {
+                finalTags.put("layer", layer);
+            }
+            if (fold) {
+                finalTags.put("calls", String.valueOf(calls));
+            }
+            finalTags.put("sql.count", String.valueOf(statementCount));
+            return new Span(traceId, id, parentId, name, kind, timestamp,
+                    Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)), finalTags);
+        }
+    }
+}
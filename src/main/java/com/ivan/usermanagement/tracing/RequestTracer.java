@@ -0,0 +1,124 @@
+package com.ivan.usermanagement.tracing;
+
+import com.ivan.usermanagement.config.TracingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Entry point of the tracing layer. The servlet filter opens a trace per request, the aspect adds
+ * a span per controller, service, mapper and repository call, and Hibernate reports every SQL statement.
+ * When the request ends the trace is checked against the configured thresholds and exported.
+ * <p>
+ * Calls made outside a traced request are ignored, so the tracer is safe to invoke from any thread.
+ */
+public class RequestTracer {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTracer.class);
+
+    private static final Pattern SELECT_TABLE = Pattern.compile("^\\s*select\\b.*?\\bfrom\\s+([\\w.`\"]+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final ThreadLocal<RequestTrace> current = new ThreadLocal<>();
+    private final TracingProperties properties;
+    private final SpanExporter exporter;
+
+    public RequestTracer(TracingProperties properties, SpanExporter exporter) {
+        this.properties = properties;
+        this.exporter = exporter;
+    }
+
+    public void begin(String name, Map<String, String> tags) {
+        current.set(new RequestTrace(name, tags));
+    }
+
+    public boolean isActive() {
+        return current.get() != null;
+    }
+
+    public void startSpan(String name, String layer) {
+        startSpan(name, layer, false);
+    }
+
+    /**
+     * @param fold merge consecutive calls of the same method into one span, see {@link RequestTrace#startSpan}
+     */
+    public void startSpan(String name, String layer, boolean fold) {
+        RequestTrace trace = current.get();
+        if (trace != null) {
+            trace.startSpan(name, layer, fold);
+        }
+    }
+
+    public void endSpan(Throwable error) {
+        RequestTrace trace = current.get();
+        if (trace != null) {
+            trace.endSpan(error);
+        }
+    }
+
+    public void recordStatement(String sql) {
+        RequestTrace trace = current.get();
+        if (trace != null) {
+            trace.recordStatement(sql);
+        }
+    }
+
+    /**
+     * Close the current trace, log threshold violations and export its spans.
+     *
+     * @return the finished trace, or null if no trace was open on this thread
+     */
+    public RequestTrace end(Map<String, String> tags) {
+        RequestTrace trace = current.get();
+        if (trace == null) {
+            return null;
+        }
+        current.remove();
+        trace.end(tags);
+        analyze(trace);
+        try {
+            exporter.export(trace.finishedSpans());
+        } catch (RuntimeException e) {
+            log.warn("Failed to export trace {}: {}", trace.getTraceId(), e.getMessage());
+        }
+        return trace;
+    }
+
+    private void analyze(RequestTrace trace) {
+        if (trace.getStatementCount() > properties.getMaxStatementsPerRequest()) {
+            trace.warn(trace.getStatementCount() + " SQL statements, limit is " + properties.getMaxStatementsPerRequest());
+        }
+
+        Map<String, Integer> selectsPerTable = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> statement : trace.getStatementCounts().entrySet()) {
+            Matcher matcher = SELECT_TABLE.matcher(statement.getKey());
+            if (!matcher.find()) {
+                continue;
+            }
+            if (statement.getValue() >= properties.getRepeatedStatementThreshold()) {
+                trace.warn("Possible N+1: same SELECT executed " + statement.getValue() + " times: " + statement.getKey());
+            }
+            selectsPerTable.merge(matcher.group(1).toLowerCase(Locale.ROOT), statement.getValue(), Integer::sum);
+        }
+        selectsPerTable.forEach((table, count) -> {
+            if (count >= properties.getRedundantSelectThreshold()) {
+                trace.warn("Redundant reads: " + count + " SELECTs on table " + table);
+            }
+        });
+
+        for (String warning : trace.getWarnings()) {
+            log.warn("{} [trace {}]: {}", trace.getName(), trace.getTraceId(), warning);
+        }
+        if (trace.getDurationMillis() >= properties.getSlowRequestThreshold().toMillis()) {
+            log.warn("Slow request {} [trace {}] took {} ms: {} ms by layer, {} SQL statements",
+                    trace.getName(), trace.getTraceId(), trace.getDurationMillis(),
+                    trace.getLayerMillis(), trace.getStatementCount());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ivan.usermanagement.tracing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * A finished span, shaped after the Zipkin v2 model: times are in epoch microseconds,
+ * {@code parentId} is null for the request's root span.
+ */
+@Getter
+@AllArgsConstructor
+public class Span {
+    private final String traceId;
+    private final String id;
+    private final String parentId;
+    private final String name;
+    private final String kind;
+    private final long timestamp;
+    private final long duration;
+    private final Map<String, String> tags;
+}
@@ -0,0 +1,10 @@
+package com.ivan.usermanagement.tracing;
+
+import java.util.List;
+
+public interface SpanExporter {
+    /**
+     * Receives all spans of one finished request, root span first.
+     */
+    void export(List<Span> spans);
+}
@@ -0,0 +1,21 @@
+package com.ivan.usermanagement.tracing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate hook that reports every SQL statement it is about to prepare to the current trace.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private final RequestTracer tracer;
+
+    public SqlStatementCounter(RequestTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        tracer.recordStatement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ivan.usermanagement.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Records a span for every controller, service, mapper and repository call made inside a traced request.
+ * Mapping runs once per row, so consecutive calls of the same mapper method are folded into one span.
+ */
+@Aspect
+public class TracingAspect {
+
+    private final RequestTracer tracer;
+
+    public TracingAspect(RequestTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("within(com.ivan.usermanagement.controller..*)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "controller", false);
+    }
+
+    @Around("within(com.ivan.usermanagement.service..*)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service", false);
+    }
+
+    @Around("within(com.ivan.usermanagement.mapper..*)")
+    public Object traceMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "mapper", true);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..)) || within(com.ivan.usermanagement.repository..*)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "repository", false);
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String layer, boolean fold) throws Throwable {
+        if (!tracer.isActive()) {
+            return joinPoint.proceed();
+        }
+        tracer.startSpan(joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName(), layer, fold);
+        Throwable error = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            tracer.endSpan(error);
+        }
+    }
+}
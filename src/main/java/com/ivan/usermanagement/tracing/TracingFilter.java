@@ -0,0 +1,34 @@
+package com.ivan.usermanagement.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Opens the root span of each HTTP request and finishes the trace when the response is complete.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final RequestTracer tracer;
+
+    public TracingFilter(RequestTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        tracer.begin(request.getMethod() + " " + request.getRequestURI(),
+                Map.of("http.method", request.getMethod(), "http.path", request.getRequestURI()));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            tracer.end(Map.of("http.status_code", String.valueOf(response.getStatus())));
+        }
+    }
+}
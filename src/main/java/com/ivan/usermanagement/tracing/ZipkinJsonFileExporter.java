@@ -0,0 +1,149 @@
+package com.ivan.usermanagement.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends each request's spans to a file as one Zipkin v2 JSON array per line,
+ * which can be posted as-is to a Zipkin collector's {@code /api/v2/spans} endpoint.
+ * <p>
+ * Request threads only enqueue their spans; a single background thread serializes them and writes
+ * through a buffered writer kept open for the life of the exporter. When the queue is full the spans
+ * are dropped rather than slowing down the request, and the number dropped is logged.
+ */
+public class ZipkinJsonFileExporter implements SpanExporter, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ZipkinJsonFileExporter.class);
+
+    private static final List<Span> SHUTDOWN = Collections.unmodifiableList(new ArrayList<>());
+
+    private final Path file;
+    private final String serviceName;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<List<Span>> queue;
+    private final AtomicLong droppedSpans = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    /**
+     * @param queueCapacity requests whose spans may wait to be written before new ones are dropped
+     */
+    public ZipkinJsonFileExporter(Path file, String serviceName, int queueCapacity) {
+        this.file = file;
+        this.serviceName = serviceName;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::writeLoop, "zipkin-span-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void export(List<Span> spans) {
+        if (closed || !queue.offer(spans)) {
+            droppedSpans.addAndGet(spans.size());
+        }
+    }
+
+    /**
+     * Total number of spans dropped because the queue was full or the exporter was closed.
+     */
+    public long getDroppedSpans() {
+        return droppedSpans.get();
+    }
+
+    /**
+     * Stop accepting spans, write out everything already queued and close the file.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            while (writerThread.isAlive() && !queue.offer(SHUTDOWN, 100, TimeUnit.MILLISECONDS)) {
+                // The writer is draining a full queue; wait for room for the shutdown marker
+            }
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        long reportedDrops = 0;
+        try (BufferedWriter writer = open()) {
+            List<Span> spans;
+            while ((spans = queue.take()) != SHUTDOWN) {
+                writer.write(objectMapper.writeValueAsString(toJson(spans)));
+                writer.newLine();
+                if (queue.isEmpty()) {
+                    writer.flush();
+                    long dropped = droppedSpans.get();
+                    if (dropped > reportedDrops) {
+                        log.warn("Span export queue full, dropped {} spans ({} in total)", dropped - reportedDrops, dropped);
+                        reportedDrops = dropped;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            closed = true;
+            log.error("Span export to {} stopped: {}", file, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BufferedWriter open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private ArrayNode toJson(List<Span> spans) {
+        ArrayNode array = objectMapper.createArrayNode();
+        for (Span span : spans) {
+            array.add(toJson(span));
+        }
+        return array;
+    }
+
+    ObjectNode toJson(Span span) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("traceId", span.getTraceId());
+        node.put("id", span.getId());
+        if (span.getParentId() != null) {
+            node.put("parentId", span.getParentId());
+        }
+        node.put("name", span.getName());
+        if (span.getKind() != null) {
+            node.put("kind", span.getKind());
+        }
+        node.put("timestamp", span.getTimestamp());
+        node.put("duration", span.getDuration());
+        node.putObject("localEndpoint").put("serviceName", serviceName);
+        ObjectNode tags = node.putObject("tags");
+        for (Map.Entry<String, String> tag : span.getTags().entrySet()) {
+            tags.put(tag.getKey(), tag.getValue());
+        }
+        return node;
+    }
+}
@@ -0,0 +1,18 @@
+CREATE TABLE IF NOT EXISTS users (
+    id            BIGINT AUTO_INCREMENT PRIMARY KEY,
+    first_name    VARCHAR(255) NOT NULL,
+    last_name     VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL UNIQUE,
+    date_of_birth DATE         NOT NULL,
+    updated_at    TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users (updated_at);
+
+-- Tombstones of deleted users, read by snapshot replicas to drop them between full reloads
+CREATE TABLE IF NOT EXISTS user_deletions (
+    user_id    BIGINT       NOT NULL PRIMARY KEY,
+    deleted_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_deletions_deleted_at ON user_deletions (deleted_at);
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS users (
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    first_name    VARCHAR(255) NOT NULL,
+    last_name     VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    date_of_birth DATE         NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS user_email_directory (
+    email      VARCHAR(255) NOT NULL PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    claimed_at TIMESTAMP    NOT NULL,
+    CONSTRAINT uk_user_email_directory_user UNIQUE (user_id, email)
+);
@@ -0,0 +1,155 @@
+package com.ivan.usermanagement.client;
+
+import com.ivan.usermanagement.dto.UserDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator for the CRUD endpoints of a running instance.
+ * <p>
+ * Every worker repeatedly creates, reads, updates and deletes its own user, so the run exercises
+ * each {@code UserServiceImpl} path with the same weight. Run it once per configuration
+ * (for example before and after a pool or driver change) and compare the printed throughput.
+ * To compare the blocking and reactive stacks against the embedded database, start the server
+ * with {@code --spring.profiles.active=h2} and then {@code reactive,h2}.
+ * <p>
+ * The load runs for a warm-up period first (JIT compilation, pool fill, statement caches); operations
+ * started during it are not counted. Latency percentiles come from a uniform sample of the measured
+ * window.
+ * <p>
+ * Arguments: {@code [threads] [durationSeconds] [baseUrl] [warmupSeconds]}, defaulting to
+ * {@code 32 30 http://localhost:8080/api/users 10}.
+ */
+public class UserCrudBenchmark {
+
+    private static final String[] OPERATIONS = {"create", "get", "update", "delete"};
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int durationSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        String baseUrl = args.length > 2 ? args[2] : "http://localhost:8080/api/users";
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        UserRestClient client = new UserRestClient(baseUrl);
+        AtomicLong sequence = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<LatencyRecorder> recorders = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long measureStart = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long deadline = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        for (int i = 0; i < threads; i++) {
+            LatencyRecorder recorder = new LatencyRecorder(measureStart);
+            recorders.add(recorder);
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        runCycle(client, sequence.incrementAndGet(), recorder);
+                    } catch (RuntimeException e) {
+                        if (System.nanoTime() >= measureStart) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(warmupSeconds + durationSeconds + 60L, TimeUnit.SECONDS);
+
+        System.out.println("Threads: " + threads + ", warm-up: " + warmupSeconds + "s, duration: "
+                + durationSeconds + "s, errors: " + errors.get());
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            report(OPERATIONS[op], op, recorders, durationSeconds);
+        }
+    }
+
+    private static void runCycle(UserRestClient client, long n, LatencyRecorder recorder) {
+        long start = System.nanoTime();
+        UserDto created = client.createUser(new UserDto(null, "Bench", "User" + n,
+                "bench." + n + "." + System.nanoTime() + "@example.com", LocalDate.of(1990, 1, 1)));
+        start = recorder.record(0, start);
+
+        client.getUserById(created.getId());
+        start = recorder.record(1, start);
+
+        created.setLastName("Updated" + n);
+        client.updateUser(created.getId(), created);
+        start = recorder.record(2, start);
+
+        client.deleteUser(created.getId());
+        recorder.record(3, start);
+    }
+
+    private static void report(String operation, int op, List<LatencyRecorder> recorders, int durationSeconds) {
+        long count = 0;
+        int sampled = 0;
+        for (LatencyRecorder recorder : recorders) {
+            count += recorder.counts[op];
+            sampled += recorder.sampleCount(op);
+        }
+        long[] sorted = new long[sampled];
+        int pos = 0;
+        for (LatencyRecorder recorder : recorders) {
+            int n = recorder.sampleCount(op);
+            System.arraycopy(recorder.samples[op], 0, sorted, pos, n);
+            pos += n;
+        }
+        Arrays.sort(sorted);
+        System.out.printf("%-7s %10.1f ops/s   p50 %7.2f ms   p99 %7.2f ms%n",
+                operation,
+                (double) count / durationSeconds,
+                percentile(sorted, 0.50) / 1_000_000.0,
+                percentile(sorted, 0.99) / 1_000_000.0);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))];
+    }
+
+    /**
+     * Per-thread latency recorder. Each operation keeps its total count and a reservoir sample of
+     * at most {@link #CAPACITY} latencies in nanoseconds, drawn uniformly from the whole measured window.
+     */
+    private static final class LatencyRecorder {
+        private static final int CAPACITY = 100_000;
+
+        private final long measureStart;
+        private final long[] counts = new long[OPERATIONS.length];
+        private final long[][] samples = new long[OPERATIONS.length][CAPACITY];
+
+        LatencyRecorder(long measureStart) {
+            this.measureStart = measureStart;
+        }
+
+        long record(int op, long start) {
+            long now = System.nanoTime();
+            if (start >= measureStart) {
+                long seen = counts[op]++;
+                if (seen < CAPACITY) {
+                    samples[op][(int) seen] = now - start;
+                } else {
+                    long slot = ThreadLocalRandom.current().nextLong(seen + 1);
+                    if (slot < CAPACITY) {
+                        samples[op][(int) slot] = now - start;
+                    }
+                }
+            }
+            return now;
+        }
+
+        int sampleCount(int op) {
+            return (int) Math.min(counts[op], CAPACITY);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ivan.usermanagement.controller;
+
+import com.ivan.usermanagement.dto.UserDto;
+import com.ivan.usermanagement.exception.GlobalExceptionHandler;
+import com.ivan.usermanagement.exception.ResourceNotFoundException;
+import com.ivan.usermanagement.service.ReactiveUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserControllerTest {
+
+    private WebTestClient webTestClient;
+
+    @Mock
+    private ReactiveUserService userService;
+
+    @InjectMocks
+    private ReactiveUserController userController;
+
+    private UserDto userDto;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(userController)
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        userDto = new UserDto(1L, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 5, 20));
+    }
+
+    // ✅ Test: Create User (POST /api/users)
+    @Test
+    void testCreateUser() {
+        when(userService.createUser(any(UserDto.class))).thenReturn(Mono.just(userDto));
+
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("John");
+    }
+
+    // ❌ Test: Get User by ID (User Not Found)
+    @Test
+    void testGetUserById_NotFound() {
+        when(userService.getUserById(1L)).thenReturn(Mono.error(new ResourceNotFoundException("User not found with id: 1")));
+
+        webTestClient.get().uri("/api/users/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("User not found with id: 1");
+    }
+
+    // ✅ Test: Get All Users (GET /api/users)
+    @Test
+    void testGetAllUsers() {
+        UserDto other = new UserDto(2L, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 8, 15));
+        when(userService.getAllUsers()).thenReturn(Flux.just(userDto, other));
+
+        webTestClient.get().uri("/api/users")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(2)
+                .jsonPath("$[1].firstName").isEqualTo("Jane");
+    }
+
+    // ✅ Test: Delete User (DELETE /api/users/{id})
+    @Test
+    void testDeleteUser() {
+        when(userService.deleteUser(1L)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("/api/users/1")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+}
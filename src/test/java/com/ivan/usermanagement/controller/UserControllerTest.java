@@ -1,8 +1,11 @@
 package com.ivan.usermanagement.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ivan.usermanagement.dto.UserBatchDto;
 import com.ivan.usermanagement.dto.UserDto;
 import com.ivan.usermanagement.exception.GlobalExceptionHandler;
+import com.ivan.usermanagement.exception.InvalidRequestException;
+import com.ivan.usermanagement.exception.ReadOnlyReplicaException;
 import com.ivan.usermanagement.exception.ResourceNotFoundException;
 import com.ivan.usermanagement.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +23,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -100,6 +104,59 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[0].firstName").value("John"));
     }
 
+    // ✅ Test: Get User by Email (GET /api/users?email=)
+    @Test
+    void testGetUserByEmail() throws Exception {
+        when(userService.getUserByEmail("john.doe@example.com")).thenReturn(userDto);
+
+        mockMvc.perform(get("/api/users")
+                        .param("email", "john.doe@example.com")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.firstName").value("John"));
+    }
+
+    // ❌ Test: Write to a read-only replica (PUT /api/users/{id})
+    @Test
+    void testUpdateUser_ReadOnlyReplica() throws Exception {
+        when(userService.updateUser(eq(1L), any(UserDto.class)))
+                .thenThrow(new ReadOnlyReplicaException("This instance serves a read-only user snapshot; send writes to the primary"));
+
+        mockMvc.perform(put("/api/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value("This instance serves a read-only user snapshot; send writes to the primary"));
+    }
+
+    // ✅ Test: Get Users by IDs (GET /api/users?ids=)
+    @Test
+    void testGetUsersByIds() throws Exception {
+        when(userService.getUsersByIds(List.of(1L, 2L))).thenReturn(new UserBatchDto(List.of(userDto), List.of(2L)));
+
+        mockMvc.perform(get("/api/users")
+                        .param("ids", "1,2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.size()").value(1))
+                .andExpect(jsonPath("$.users[0].firstName").value("John"))
+                .andExpect(jsonPath("$.missingIds[0]").value(2));
+        verify(userService, never()).getAllUsers();
+    }
+
+    // ❌ Test: Get Users by IDs (Too Many IDs)
+    @Test
+    void testGetUsersByIds_TooManyIds() throws Exception {
+        when(userService.getUsersByIds(anyList())).thenThrow(new InvalidRequestException("At most 500 ids per request, got 501"));
+
+        mockMvc.perform(get("/api/users")
+                        .param("ids", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At most 500 ids per request, got 501"));
+    }
+
     // ✅ Test: Update User (PUT /api/users/{id})
     @Test
     void testUpdateUser() throws Exception {
@@ -0,0 +1,129 @@
+package com.ivan.usermanagement.service;
+
+import com.ivan.usermanagement.dto.UserDto;
+import com.ivan.usermanagement.entity.UserRecord;
+import com.ivan.usermanagement.exception.ResourceNotFoundException;
+import com.ivan.usermanagement.mapper.UserMapper;
+import com.ivan.usermanagement.repository.ReactiveUserRepository;
+import com.ivan.usermanagement.service.impl.ReactiveUserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserServiceTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    private ReactiveUserServiceImpl userService;
+
+    private UserRecord record;
+
+    @BeforeEach
+    void setUp() {
+        userService = new ReactiveUserServiceImpl(userRepository, new UserMapper());
+        record = new UserRecord(1L, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 5, 20));
+    }
+
+    // ✅ Test: Create User ignores a client-supplied id
+    @Test
+    void testCreateUser() {
+        when(userRepository.save(any(UserRecord.class))).thenAnswer(invocation -> {
+            UserRecord saved = invocation.getArgument(0);
+            assertNull(saved.getId());
+            saved.setId(7L);
+            return Mono.just(saved);
+        });
+
+        UserDto created = userService.createUser(
+                new UserDto(99L, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 5, 20))).block();
+
+        assertNotNull(created);
+        assertEquals(7L, created.getId());
+        assertEquals("John", created.getFirstName());
+    }
+
+    // ✅ Test: Get User by ID (Success)
+    @Test
+    void testGetUserById_WhenUserExists() {
+        when(userRepository.findById(1L)).thenReturn(Mono.just(record));
+
+        UserDto found = userService.getUserById(1L).block();
+
+        assertNotNull(found);
+        assertEquals("john.doe@example.com", found.getEmail());
+    }
+
+    // ❌ Test: Get User by ID (Not Found)
+    @Test
+    void testGetUserById_WhenUserNotFound() {
+        when(userRepository.findById(1L)).thenReturn(Mono.empty());
+
+        Exception exception = assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(1L).block());
+
+        assertEquals("User not found with id: 1", exception.getMessage());
+    }
+
+    // ✅ Test: Get All Users
+    @Test
+    void testGetAllUsers() {
+        UserRecord other = new UserRecord(2L, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 8, 15));
+        when(userRepository.findAll()).thenReturn(Flux.just(record, other));
+
+        List<UserDto> result = userService.getAllUsers().collectList().block();
+
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        assertEquals("Jane", result.get(1).getFirstName());
+    }
+
+    // ✅ Test: Update User (Success)
+    @Test
+    void testUpdateUser_WhenUserExists() {
+        when(userRepository.findById(1L)).thenReturn(Mono.just(record));
+        when(userRepository.save(any(UserRecord.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        UserDto result = userService.updateUser(1L,
+                new UserDto(1L, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 8, 15))).block();
+
+        assertNotNull(result);
+        assertEquals("Jane", result.getFirstName());
+        assertEquals("jane.doe@example.com", result.getEmail());
+    }
+
+    // ✅ Test: Delete User (Success)
+    @Test
+    void testDeleteUser_WhenUserExists() {
+        when(userRepository.deleteByIdReturningCount(1L)).thenReturn(Mono.just(1));
+        when(userRepository.recordDeletion(1L)).thenReturn(Mono.just(1));
+
+        userService.deleteUser(1L).block();
+
+        verify(userRepository, times(1)).deleteByIdReturningCount(1L);
+        verify(userRepository, times(1)).recordDeletion(1L);
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    // ❌ Test: Delete User (Not Found)
+    @Test
+    void testDeleteUser_WhenUserNotFound() {
+        when(userRepository.deleteByIdReturningCount(1L)).thenReturn(Mono.just(0));
+
+        Exception exception = assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(1L).block());
+
+        assertEquals("User not found with id: 1", exception.getMessage());
+        verify(userRepository, never()).recordDeletion(anyLong());
+    }
+}
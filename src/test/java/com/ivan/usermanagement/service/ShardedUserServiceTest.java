@@ -0,0 +1,243 @@
+package com.ivan.usermanagement.service;
+
+import com.ivan.usermanagement.dto.UserBatchDto;
+import com.ivan.usermanagement.dto.UserDto;
+import com.ivan.usermanagement.entity.User;
+import com.ivan.usermanagement.exception.DuplicateResourceException;
+import com.ivan.usermanagement.exception.ResourceNotFoundException;
+import com.ivan.usermanagement.mapper.UserMapper;
+import com.ivan.usermanagement.repository.ShardedUserRepository;
+import com.ivan.usermanagement.service.impl.ShardedUserServiceImpl;
+import com.ivan.usermanagement.sharding.ConsistentHashRouter;
+import com.ivan.usermanagement.sharding.SnowflakeIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedUserServiceTest {
+
+    private static final int SHARDS = 3;
+    private static final Duration CLAIM_TIMEOUT = Duration.ofSeconds(30);
+
+    private final List<EmbeddedDatabase> databases = new ArrayList<>();
+    private ExecutorService executor;
+    private ShardedUserRepository userRepository;
+    private ConsistentHashRouter router;
+    private ShardedUserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < SHARDS; i++) {
+            databases.add(new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("sharding-schema.sql")
+                    .build());
+        }
+        executor = Executors.newFixedThreadPool(SHARDS);
+        userRepository = new ShardedUserRepository(new ArrayList<DataSource>(databases), 0, CLAIM_TIMEOUT);
+        router = new ConsistentHashRouter(SHARDS, 128);
+        userService = new ShardedUserServiceImpl(userRepository, router, new SnowflakeIdGenerator(0),
+                new UserMapper(), executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        databases.forEach(EmbeddedDatabase::shutdown);
+    }
+
+    // ✅ Test: Create User stores the row on the shard chosen by the router
+    @Test
+    void testCreateUser() {
+        UserDto created = userService.createUser(newUser(1));
+
+        assertNotNull(created.getId());
+        int shard = router.shardFor(created.getId());
+        assertTrue(userRepository.findById(shard, created.getId()).isPresent());
+        for (int other = 0; other < SHARDS; other++) {
+            if (other != shard) {
+                assertTrue(userRepository.findById(other, created.getId()).isEmpty());
+            }
+        }
+        assertEquals(created.getId(), userRepository.findUserIdByEmail("user1@example.com").orElseThrow());
+    }
+
+    // ❌ Test: Create User with an email taken on another shard
+    @Test
+    void testCreateUser_DuplicateEmail() {
+        userService.createUser(newUser(1));
+
+        Exception exception = assertThrows(DuplicateResourceException.class, () -> userService.createUser(newUser(1)));
+
+        assertEquals("User already exists with email: user1@example.com", exception.getMessage());
+        assertEquals(1, userService.getAllUsers().size());
+    }
+
+    // ✅ Test: Create User takes over a timed-out claim that no user row backs
+    @Test
+    void testCreateUser_TakesOverAbandonedClaim() {
+        addClaim("user1@example.com", 42L, Instant.now().minus(CLAIM_TIMEOUT.multipliedBy(2)));
+
+        UserDto created = userService.createUser(newUser(1));
+
+        assertEquals(created.getId(), userRepository.findUserIdByEmail("user1@example.com").orElseThrow());
+    }
+
+    // ❌ Test: Create User keeps a recent claim whose write may still be in flight
+    @Test
+    void testCreateUser_RecentClaimIsKept() {
+        userRepository.claimEmail("user1@example.com", 42L);
+
+        assertThrows(DuplicateResourceException.class, () -> userService.createUser(newUser(1)));
+        assertEquals(42L, userRepository.findUserIdByEmail("user1@example.com").orElseThrow());
+    }
+
+    // ❌ Test: Create User keeps an old claim while the owner's row holds the email
+    @Test
+    void testCreateUser_OldClaimBackedByRowIsKept() {
+        UserDto owner = userService.createUser(newUser(1));
+        new JdbcTemplate(databases.get(0)).update("UPDATE user_email_directory SET claimed_at = ?",
+                Timestamp.from(Instant.now().minus(CLAIM_TIMEOUT.multipliedBy(2))));
+
+        assertThrows(DuplicateResourceException.class, () -> userService.createUser(newUser(1)));
+        assertEquals(owner.getId(), userRepository.findUserIdByEmail("user1@example.com").orElseThrow());
+    }
+
+    // ❌ Test: Get User by Email ignores a claim the user row does not hold yet
+    @Test
+    void testGetUserByEmail_ClaimNotBackedByRow() {
+        UserDto created = userService.createUser(newUser(1));
+        userRepository.claimEmail("user2@example.com", created.getId());
+
+        Exception exception = assertThrows(ResourceNotFoundException.class,
+                () -> userService.getUserByEmail("user2@example.com"));
+
+        assertEquals("User not found with email: user2@example.com", exception.getMessage());
+        assertEquals(created.getId(), userService.getUserByEmail("user1@example.com").getId());
+    }
+
+    // ✅ Test: Get All Users merges every shard in id order
+    @Test
+    void testGetAllUsers() {
+        Set<Integer> usedShards = new HashSet<>();
+        for (int i = 0; i < 60; i++) {
+            usedShards.add(router.shardFor(userService.createUser(newUser(i)).getId()));
+        }
+
+        List<UserDto> result = userService.getAllUsers();
+
+        assertEquals(SHARDS, usedShards.size());
+        assertEquals(60, result.size());
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.get(i - 1).getId() < result.get(i).getId());
+        }
+    }
+
+    // ✅ Test: Get Users by IDs across shards keeps the requested order
+    @Test
+    void testGetUsersByIds() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(userService.createUser(newUser(i)).getId());
+        }
+        List<Long> requested = new ArrayList<>(ids.reversed());
+        requested.add(1L);
+
+        UserBatchDto result = userService.getUsersByIds(requested);
+
+        assertEquals(ids.reversed(), result.getUsers().stream().map(UserDto::getId).toList());
+        assertEquals(List.of(1L), result.getMissingIds());
+    }
+
+    // ✅ Test: Update User moves the email reservation
+    @Test
+    void testUpdateUser() {
+        UserDto created = userService.createUser(newUser(1));
+        userService.createUser(newUser(2));
+
+        UserDto updated = userService.updateUser(created.getId(),
+                new UserDto(null, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 8, 15)));
+
+        assertEquals("Jane", userService.getUserById(created.getId()).getFirstName());
+        assertEquals("jane.doe@example.com", updated.getEmail());
+        assertTrue(userRepository.findUserIdByEmail("user1@example.com").isEmpty());
+        assertThrows(DuplicateResourceException.class, () -> userService.updateUser(created.getId(), newUser(2)));
+    }
+
+    // ✅ Test: Concurrent email changes leave only the final email reserved
+    @Test
+    void testUpdateUser_ConcurrentEmailChange() {
+        AtomicBoolean interleaved = new AtomicBoolean();
+        AtomicReference<ShardedUserServiceImpl> service = new AtomicReference<>();
+        ShardedUserRepository repository = new ShardedUserRepository(new ArrayList<DataSource>(databases), 0, CLAIM_TIMEOUT) {
+            @Override
+            public int update(int shard, User user, String expectedEmail) {
+                // Another request changes the email between this update's read and its write
+                if (interleaved.compareAndSet(false, true)) {
+                    service.get().updateUser(user.getId(), newUser(3));
+                }
+                return super.update(shard, user, expectedEmail);
+            }
+        };
+        service.set(new ShardedUserServiceImpl(repository, router, new SnowflakeIdGenerator(1), new UserMapper(), executor));
+        UserDto created = service.get().createUser(newUser(1));
+
+        UserDto updated = service.get().updateUser(created.getId(), newUser(2));
+
+        assertEquals("user2@example.com", updated.getEmail());
+        assertEquals("user2@example.com", service.get().getUserById(created.getId()).getEmail());
+        assertEquals(created.getId(), repository.findUserIdByEmail("user2@example.com").orElseThrow());
+        assertTrue(repository.findUserIdByEmail("user1@example.com").isEmpty());
+        assertTrue(repository.findUserIdByEmail("user3@example.com").isEmpty());
+    }
+
+    // ✅ Test: Delete User frees the email
+    @Test
+    void testDeleteUser() {
+        UserDto created = userService.createUser(newUser(1));
+
+        userService.deleteUser(created.getId());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(created.getId()));
+        assertNotNull(userService.createUser(newUser(1)).getId());
+    }
+
+    // ❌ Test: Delete User (Not Found)
+    @Test
+    void testDeleteUser_WhenUserNotFound() {
+        Exception exception = assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(1L));
+
+        assertEquals("User not found with id: 1", exception.getMessage());
+    }
+
+    private void addClaim(String email, long userId, Instant claimedAt) {
+        new JdbcTemplate(databases.get(0)).update(
+                "INSERT INTO user_email_directory (email, user_id, claimed_at) VALUES (?, ?, ?)",
+                email, userId, Timestamp.from(claimedAt));
+    }
+
+    private static UserDto newUser(int n) {
+        return new UserDto(null, "User", "Number" + n, "user" + n + "@example.com", LocalDate.of(1990, 5, 20));
+    }
+}
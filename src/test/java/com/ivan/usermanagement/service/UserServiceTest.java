@@ -1,7 +1,9 @@
 package com.ivan.usermanagement.service;
 
+import com.ivan.usermanagement.dto.UserBatchDto;
 import com.ivan.usermanagement.dto.UserDto;
 import com.ivan.usermanagement.entity.User;
+import com.ivan.usermanagement.exception.InvalidRequestException;
 import com.ivan.usermanagement.exception.ResourceNotFoundException;
 import com.ivan.usermanagement.mapper.UserMapper;
 import com.ivan.usermanagement.repository.UserRepository;
@@ -12,8 +14,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -30,14 +36,19 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private UserServiceImpl userService;
 
     private User user;
     private UserDto userDto;
+    private Cache cache;
 
     @BeforeEach
     void setUp() {
+        cache = new ConcurrentMapCache("users");
         user = new User(1L, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 5, 20));
         userDto = new UserDto(1L, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 5, 20));
     }
@@ -82,6 +93,111 @@ class UserServiceTest {
         assertEquals("User not found with id: 1", exception.getMessage());
     }
 
+    // ✅ Test: Get User by Email
+    @Test
+    void testGetUserByEmail_WhenUserExists() {
+        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(user));
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        UserDto foundUser = userService.getUserByEmail("john.doe@example.com");
+
+        assertEquals(1L, foundUser.getId());
+    }
+
+    // ❌ Test: Get User by Email (Not Found)
+    @Test
+    void testGetUserByEmail_WhenUserNotFound() {
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
+            userService.getUserByEmail("nobody@example.com");
+        });
+
+        assertEquals("User not found with email: nobody@example.com", exception.getMessage());
+    }
+
+    // ✅ Test: Get Users by IDs (cache first, then one IN query, requested order kept)
+    @Test
+    void testGetUsersByIds() {
+        User jane = new User(2L, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 8, 15));
+        UserDto janeDto = new UserDto(2L, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 8, 15));
+
+        cache.put(1L, userDto);
+        when(cacheManager.getCache("users")).thenReturn(cache);
+        when(userRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(jane));
+        when(userMapper.toDto(jane)).thenReturn(janeDto);
+
+        UserBatchDto result = userService.getUsersByIds(List.of(2L, 1L, 3L, 2L));
+
+        assertEquals(List.of(2L, 1L), result.getUsers().stream().map(UserDto::getId).toList());
+        assertEquals(List.of(3L), result.getMissingIds());
+        verify(userRepository, times(1)).findAllById(any());
+        assertEquals("Jane", cache.get(2L, UserDto.class).getFirstName());
+        assertNull(cache.get(3L));
+    }
+
+    // ✅ Test: Get Users by IDs never hands out the cached instance
+    @Test
+    void testGetUsersByIds_ReturnsCopies() {
+        cache.put(1L, userDto);
+        when(cacheManager.getCache("users")).thenReturn(cache);
+
+        UserDto result = userService.getUsersByIds(List.of(1L)).getUsers().get(0);
+        result.setFirstName("Changed");
+
+        assertNotSame(userDto, result);
+        assertEquals("John", cache.get(1L, UserDto.class).getFirstName());
+    }
+
+    // ✅ Test: Get Users by IDs reads the largest allowed request with one IN query
+    @Test
+    void testGetUsersByIds_SingleInQuery() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= UserService.MAX_IDS_PER_REQUEST; id++) {
+            ids.add(id);
+        }
+        when(cacheManager.getCache("users")).thenReturn(cache);
+        when(userRepository.findAllById(any())).thenReturn(List.of());
+
+        UserBatchDto result = userService.getUsersByIds(ids);
+
+        assertTrue(result.getUsers().isEmpty());
+        assertEquals(ids, result.getMissingIds());
+        verify(userRepository, times(1)).findAllById(any());
+    }
+
+    // ✅ Test: Get Users by IDs does not keep a row read while a write finished
+    @Test
+    void testGetUsersByIds_WriteDuringRead() {
+        when(cacheManager.getCache("users")).thenReturn(cache);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.findAllById(List.of(1L))).thenAnswer(invocation -> {
+            // Another request deletes the user after this read and before the cache is filled
+            userService.deleteUser(1L);
+            return List.of(user);
+        });
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        UserBatchDto result = userService.getUsersByIds(List.of(1L));
+
+        assertEquals(1, result.getUsers().size());
+        assertNull(cache.get(1L));
+    }
+
+    // ❌ Test: Get Users by IDs (Too Many IDs)
+    @Test
+    void testGetUsersByIds_TooManyIds() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 501; id++) {
+            ids.add(id);
+        }
+
+        Exception exception = assertThrows(InvalidRequestException.class, () -> userService.getUsersByIds(ids));
+
+        assertEquals("At most 500 ids per request, got 501", exception.getMessage());
+        verifyNoInteractions(userRepository);
+    }
+
     // ✅ Test: Get All Users
     @Test
     void testGetAllUsers() {
@@ -103,6 +219,8 @@ class UserServiceTest {
         User updatedUser = new User(1L, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 8, 15));
         UserDto updatedUserDto = new UserDto(1L, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 8, 15));
 
+        cache.put(1L, userDto);
+        when(cacheManager.getCache("users")).thenReturn(cache);
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         // ✅ Use `any(User.class)` to avoid argument mismatch issue
@@ -118,6 +236,7 @@ class UserServiceTest {
         // ✅ Ensure repository interactions are correct
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).save(any(User.class));
+        assertNull(cache.get(1L));
     }
 
 
@@ -140,13 +259,17 @@ class UserServiceTest {
     @Test
     void testDeleteUser_WhenUserExists() {
         // Ensure user exists before deletion
+        cache.put(1L, userDto);
+        when(cacheManager.getCache("users")).thenReturn(cache);
         when(userRepository.existsById(1L)).thenReturn(true);
 
         // Perform delete operation
         userService.deleteUser(1L);
 
-        // Verify delete was called once
+        // Verify delete was called once and left a tombstone for snapshot replicas
         verify(userRepository, times(1)).deleteById(1L);
+        verify(userRepository, times(1)).recordDeletion(1L);
+        assertNull(cache.get(1L));
     }
 
 
@@ -0,0 +1,62 @@
+package com.ivan.usermanagement.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRouterTest {
+
+    // ✅ Test: Same id always routes to the same shard
+    @Test
+    void testShardForIsStable() {
+        ConsistentHashRouter router = new ConsistentHashRouter(4, 128);
+        ConsistentHashRouter sameRing = new ConsistentHashRouter(4, 128);
+
+        for (long id = 0; id < 10_000; id++) {
+            int shard = router.shardFor(id);
+            assertTrue(shard >= 0 && shard < 4);
+            assertEquals(shard, sameRing.shardFor(id));
+        }
+    }
+
+    // ✅ Test: Sequential ids spread evenly over shards
+    @Test
+    void testShardForSpreadsIds() {
+        ConsistentHashRouter router = new ConsistentHashRouter(4, 128);
+        int[] counts = new int[4];
+
+        for (long id = 0; id < 100_000; id++) {
+            counts[router.shardFor(id)]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(count > 20_000 && count < 30_000, "Unbalanced shard with " + count + " ids");
+        }
+    }
+
+    // ✅ Test: Adding a shard only moves ids onto the new shard
+    @Test
+    void testAddingShardMovesOnlyItsShare() {
+        ConsistentHashRouter before = new ConsistentHashRouter(4, 128);
+        ConsistentHashRouter after = new ConsistentHashRouter(5, 128);
+        int moved = 0;
+
+        for (long id = 0; id < 100_000; id++) {
+            int oldShard = before.shardFor(id);
+            int newShard = after.shardFor(id);
+            if (oldShard != newShard) {
+                assertEquals(4, newShard);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > 10_000 && moved < 30_000, "Moved " + moved + " ids");
+    }
+
+    // ❌ Test: Invalid ring configuration
+    @Test
+    void testRejectsEmptyRing() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRouter(0, 128));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRouter(2, 0));
+    }
+}
@@ -0,0 +1,44 @@
+package com.ivan.usermanagement.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    // ✅ Test: Ids from one node are unique and increasing
+    @Test
+    void testNextIdIsUniqueAndIncreasing() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        long previous = -1;
+
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    // ✅ Test: Different nodes never produce the same id
+    @Test
+    void testNodesDoNotCollide() {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2);
+        Set<Long> ids = new HashSet<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(ids.add(first.nextId()));
+            assertTrue(ids.add(second.nextId()));
+        }
+    }
+
+    // ❌ Test: Node id out of range
+    @Test
+    void testRejectsInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+    }
+}
@@ -0,0 +1,66 @@
+package com.ivan.usermanagement.snapshot;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reports memory per user and lookup latency of a {@link UserDirectory} filled with synthetic users.
+ * <p>
+ * Arguments: {@code [users] [lookups]}, defaulting to {@code 10000000 5000000}. For 10M users run with
+ * enough heap and direct memory, e.g. {@code -Xmx3g -XX:MaxDirectMemorySize=2g}.
+ */
+public class UserDirectoryBenchmark {
+
+    private static final int EMAIL_SAMPLES = 1 << 16;
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+
+        long start = System.nanoTime();
+        UserDirectory.Builder builder = UserDirectory.builder(users, 48L * users);
+        for (int i = 0; i < users; i++) {
+            long id = 2L * i + 1;
+            builder.add(id, "First" + i, "Last" + i, email(id), LocalDate.ofEpochDay(i % 20_000));
+        }
+        UserDirectory directory = builder.build();
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Users: %,d, built in %,d ms%n", directory.size(), buildMillis);
+        System.out.printf("Directory size: %,d bytes, %.1f bytes per user%n",
+                directory.memoryBytes(), (double) directory.memoryBytes() / directory.size());
+
+        long[] ids = new long[lookups];
+        String[] emails = new String[EMAIL_SAMPLES];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < lookups; i++) {
+            ids[i] = random.nextLong(2L * users);
+        }
+        for (int i = 0; i < EMAIL_SAMPLES; i++) {
+            emails[i] = email(2L * random.nextInt(users) + 1);
+            emails[i].hashCode();
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long hits = 0;
+            start = System.nanoTime();
+            for (long id : ids) {
+                hits += directory.indexOf(id) >= 0 ? 1 : 0;
+            }
+            long idNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                hits += directory.indexOfEmail(emails[i & (EMAIL_SAMPLES - 1)]) >= 0 ? 1 : 0;
+            }
+            long emailNanos = System.nanoTime() - start;
+
+            System.out.printf("Round %d: id lookup %.1f ns, email lookup %.1f ns (%d hits)%n",
+                    round + 1, (double) idNanos / lookups, (double) emailNanos / lookups, hits);
+        }
+    }
+
+    private static String email(long id) {
+        return "user." + id + "@example.com";
+    }
+}
@@ -0,0 +1,197 @@
+package com.ivan.usermanagement.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDirectoryTest {
+
+    private static UserDirectory sample() {
+        return UserDirectory.builder(3, 0)
+                .add(1L, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 5, 20))
+                .add(5L, "Zoë", "Müller", "zoë.müller@example.com", LocalDate.of(1985, 1, 2))
+                .add(9L, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 8, 15))
+                .build();
+    }
+
+    // ✅ Test: Lookup by ID
+    @Test
+    void testIndexOf() {
+        UserDirectory directory = sample();
+
+        int index = directory.indexOf(5L);
+
+        assertEquals(3, directory.size());
+        assertEquals(5L, directory.idAt(index));
+        assertEquals("Zoë", directory.firstNameAt(index));
+        assertEquals("Müller", directory.lastNameAt(index));
+        assertEquals("zoë.müller@example.com", directory.emailAt(index));
+        assertEquals(LocalDate.of(1985, 1, 2), directory.dateOfBirthAt(index));
+        assertEquals(-1, directory.indexOf(2L));
+    }
+
+    // ✅ Test: Lookup by email is case-insensitive, including non-ASCII characters
+    @Test
+    void testIndexOfEmail() {
+        UserDirectory directory = sample();
+
+        assertEquals(9L, directory.idAt(directory.indexOfEmail("jane.doe@example.com")));
+        assertEquals(1L, directory.idAt(directory.indexOfEmail("John.Doe@Example.com")));
+        assertEquals(5L, directory.idAt(directory.indexOfEmail("ZOË.MÜLLER@example.com")));
+        assertEquals(-1, directory.indexOfEmail("john.doe@example.co"));
+        assertEquals(-1, directory.indexOfEmail("john.doe@example.comm"));
+        assertEquals(-1, UserDirectory.empty().indexOfEmail("john.doe@example.com"));
+    }
+
+    // ✅ Test: Changes replace and add users, unchanged records are kept
+    @Test
+    void testWithChanges() {
+        UserDirectory directory = sample();
+
+        UserDirectory updated = directory.withChanges(List.of(
+                new UserDirectory.Entry(3L, "New", "User", "new.user@example.com", LocalDate.of(2000, 1, 1)),
+                new UserDirectory.Entry(9L, "Jane", "Smith", "jane.smith@example.com", LocalDate.of(1995, 8, 15))));
+
+        assertEquals(3, directory.size());
+        assertEquals(4, updated.size());
+        assertEquals("User", updated.lastNameAt(updated.indexOf(3L)));
+        assertEquals("Smith", updated.lastNameAt(updated.indexOf(9L)));
+        assertEquals(-1, updated.indexOfEmail("jane.doe@example.com"));
+        assertEquals(9L, updated.idAt(updated.indexOfEmail("jane.smith@example.com")));
+        assertEquals("Zoë", updated.firstNameAt(updated.indexOf(5L)));
+        assertSame(updated, updated.withChanges(List.of()));
+
+        List<Long> ids = new ArrayList<>();
+        updated.indexes().forEachRemaining((int index) -> ids.add(updated.idAt(index)));
+        assertEquals(List.of(1L, 3L, 5L, 9L), ids);
+    }
+
+    // ✅ Test: A one-row change shares the packed base instead of copying every record
+    @Test
+    void testWithChanges_KeepsBase() {
+        UserDirectory.Builder builder = UserDirectory.builder(100_000, 0);
+        for (long id = 1; id <= 100_000; id++) {
+            builder.add(id, "First" + id, "Last" + id, "user" + id + "@example.com", LocalDate.of(1990, 1, 1));
+        }
+        UserDirectory directory = builder.build();
+
+        UserDirectory updated = directory.withChanges(List.of(
+                new UserDirectory.Entry(50_000L, "First", "Changed", "user50000@example.com", LocalDate.of(1990, 1, 1))));
+        UserDirectory again = updated.withChanges(List.of(
+                new UserDirectory.Entry(100_001L, "New", "User", "new.user@example.com", LocalDate.of(2000, 1, 1))));
+
+        assertTrue(updated.sharesBaseWith(directory));
+        assertTrue(again.sharesBaseWith(directory));
+        assertEquals(1, updated.pendingChanges());
+        assertEquals(2, again.pendingChanges());
+        assertEquals(directory.memoryBytes(), again.memoryBytes());
+        assertEquals(100_001, again.size());
+        assertEquals("Changed", again.lastNameAt(again.indexOf(50_000L)));
+        assertEquals(50_000L, again.idAt(again.indexOfEmail("USER50000@example.com")));
+        assertEquals("Last49999", again.lastNameAt(again.indexOf(49_999L)));
+        assertEquals("Last50000", directory.lastNameAt(directory.indexOf(50_000L)));
+    }
+
+    // ✅ Test: An email freed by a change can be taken by another user before the next full load
+    @Test
+    void testWithChanges_EmailMovesBetweenUsers() {
+        UserDirectory updated = sample().withChanges(List.of(
+                new UserDirectory.Entry(1L, "John", "Doe", "jane.doe@example.com", LocalDate.of(1990, 5, 20)),
+                new UserDirectory.Entry(9L, "Jane", "Doe", "jane@example.com", LocalDate.of(1995, 8, 15))));
+
+        assertEquals(1L, updated.idAt(updated.indexOfEmail("Jane.Doe@example.com")));
+        assertEquals(9L, updated.idAt(updated.indexOfEmail("jane@example.com")));
+        assertEquals(-1, updated.indexOfEmail("john.doe@example.com"));
+        assertEquals(3, updated.size());
+        assertTrue(updated.contains(new UserDirectory.Entry(9L, "Jane", "Doe", "jane@example.com", LocalDate.of(1995, 8, 15))));
+        assertFalse(updated.contains(new UserDirectory.Entry(9L, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 8, 15))));
+    }
+
+    // ✅ Test: Deletes hide base and overlay users, and win over a change in the same batch
+    @Test
+    void testWithChanges_Deletes() {
+        UserDirectory directory = sample().withChanges(List.of(
+                new UserDirectory.Entry(3L, "New", "User", "new.user@example.com", LocalDate.of(2000, 1, 1))));
+
+        UserDirectory updated = directory.withChanges(List.of(
+                new UserDirectory.Entry(9L, "Jane", "Smith", "jane.smith@example.com", LocalDate.of(1995, 8, 15))),
+                List.of(1L, 3L, 9L, 42L));
+
+        assertEquals(1, updated.size());
+        assertEquals(2, updated.pendingChanges());
+        assertTrue(updated.sharesBaseWith(directory));
+        assertEquals(-1, updated.indexOf(1L));
+        assertEquals(-1, updated.indexOf(3L));
+        assertEquals(-1, updated.indexOf(9L));
+        assertEquals(-1, updated.indexOfEmail("john.doe@example.com"));
+        assertEquals(-1, updated.indexOfEmail("jane.smith@example.com"));
+        assertFalse(updated.contains(new UserDirectory.Entry(1L, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 5, 20))));
+        assertSame(updated, updated.withChanges(List.of(), List.of(1L, 42L)));
+
+        List<Long> ids = new ArrayList<>();
+        updated.indexes().forEachRemaining((int index) -> ids.add(updated.idAt(index)));
+        assertEquals(List.of(5L), ids);
+    }
+
+    // ✅ Test: Compaction folds the overlay into a new base holding the same users
+    @Test
+    void testCompact() {
+        UserDirectory directory = sample();
+        UserDirectory updated = directory.withChanges(List.of(
+                new UserDirectory.Entry(3L, "New", "User", "new.user@example.com", LocalDate.of(2000, 1, 1)),
+                new UserDirectory.Entry(9L, "Jane", "Smith", "jane.smith@example.com", LocalDate.of(1995, 8, 15))),
+                List.of(1L));
+
+        UserDirectory compacted = updated.compact();
+
+        assertFalse(compacted.sharesBaseWith(directory));
+        assertEquals(0, compacted.pendingChanges());
+        assertEquals(3, compacted.size());
+        assertEquals(-1, compacted.indexOf(1L));
+        assertEquals("Müller", compacted.lastNameAt(compacted.indexOf(5L)));
+        assertEquals(LocalDate.of(1985, 1, 2), compacted.dateOfBirthAt(compacted.indexOf(5L)));
+        assertEquals(5L, compacted.idAt(compacted.indexOfEmail("ZOË.MÜLLER@example.com")));
+        assertEquals(3L, compacted.idAt(compacted.indexOfEmail("new.user@example.com")));
+        assertEquals(9L, compacted.idAt(compacted.indexOfEmail("jane.smith@example.com")));
+        assertEquals(-1, compacted.indexOfEmail("jane.doe@example.com"));
+        assertSame(compacted, compacted.compact());
+
+        List<Long> ids = new ArrayList<>();
+        compacted.indexes().forEachRemaining((int index) -> ids.add(compacted.idAt(index)));
+        assertEquals(List.of(3L, 5L, 9L), ids);
+    }
+
+    // ✅ Test: Records spill over into further storage segments
+    @Test
+    void testSegments() {
+        UserDirectory.Builder builder = new UserDirectory.Builder(0, 0, 12);
+        for (long id = 1; id <= 1_000; id++) {
+            builder.add(id, "First" + id, "Last" + id, "user" + id + "@example.com", LocalDate.of(1990, 1, 1));
+        }
+        UserDirectory directory = builder.build();
+
+        for (long id = 1; id <= 1_000; id++) {
+            int index = directory.indexOfEmail("user" + id + "@example.com");
+            assertEquals(id, directory.idAt(index));
+            assertEquals("Last" + id, directory.lastNameAt(index));
+        }
+        assertTrue(directory.contains(new UserDirectory.Entry(500L, "First500", "Last500", "user500@example.com",
+                LocalDate.of(1990, 1, 1))));
+        assertFalse(directory.contains(new UserDirectory.Entry(500L, "First500", "Last5000", "user500@example.com",
+                LocalDate.of(1990, 1, 1))));
+    }
+
+    // ❌ Test: Users must arrive in ascending id order
+    @Test
+    void testRejectsUnorderedIds() {
+        UserDirectory.Builder builder = UserDirectory.builder(2, 0)
+                .add(2L, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 5, 20));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.add(1L, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 8, 15)));
+    }
+}
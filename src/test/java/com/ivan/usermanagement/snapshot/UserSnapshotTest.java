@@ -0,0 +1,151 @@
+package com.ivan.usermanagement.snapshot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSnapshotTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private LocalDateTime clock;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        clock = LocalDateTime.of(2025, 1, 1, 12, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    // ✅ Test: Full load, then incremental refresh picks up inserts and updates
+    @Test
+    void testIncrementalRefresh() {
+        insert(1, "john.doe@example.com");
+        insert(2, "jane.doe@example.com");
+        UserSnapshot snapshot = new UserSnapshot(new UserDirectoryLoader(jdbcTemplate),
+                Duration.ofSeconds(5), Duration.ofHours(1), Duration.ofSeconds(2), 100);
+        snapshot.refresh();
+        UserDirectory loaded = snapshot.current();
+
+        assertEquals(2, loaded.size());
+
+        insert(3, "new.user@example.com");
+        jdbcTemplate.update("UPDATE users SET last_name = ?, updated_at = ? WHERE id = ?", "Smith", tick(), 2);
+        snapshot.refresh();
+
+        UserDirectory refreshed = snapshot.current();
+        assertTrue(refreshed.sharesBaseWith(loaded));
+        assertEquals(2, refreshed.pendingChanges());
+        assertEquals(3, refreshed.size());
+        assertEquals("Smith", refreshed.lastNameAt(refreshed.indexOf(2)));
+        assertEquals(3L, refreshed.idAt(refreshed.indexOfEmail("new.user@example.com")));
+
+        snapshot.refresh();
+        assertSame(refreshed, snapshot.current());
+    }
+
+    // ✅ Test: Deletes are picked up from tombstones by the incremental refresh
+    @Test
+    void testIncrementalRefreshDropsDeletedUsers() {
+        insert(1, "john.doe@example.com");
+        insert(2, "jane.doe@example.com");
+        UserSnapshot snapshot = new UserSnapshot(new UserDirectoryLoader(jdbcTemplate),
+                Duration.ofSeconds(5), Duration.ofHours(1), Duration.ofSeconds(2), 100);
+        snapshot.refresh();
+        UserDirectory loaded = snapshot.current();
+
+        delete(1);
+        snapshot.refresh();
+
+        UserDirectory refreshed = snapshot.current();
+        assertTrue(refreshed.sharesBaseWith(loaded));
+        assertEquals(1, refreshed.size());
+        assertEquals(-1, refreshed.indexOf(1));
+        assertEquals(-1, refreshed.indexOfEmail("john.doe@example.com"));
+
+        snapshot.refresh();
+        assertSame(refreshed, snapshot.current());
+    }
+
+    // ✅ Test: Deletes are also applied by the full refresh
+    @Test
+    void testFullRefreshDropsDeletedUsers() {
+        insert(1, "john.doe@example.com");
+        insert(2, "jane.doe@example.com");
+        UserSnapshot snapshot = new UserSnapshot(new UserDirectoryLoader(jdbcTemplate),
+                Duration.ofSeconds(5), Duration.ZERO, Duration.ofSeconds(2), 100);
+        snapshot.refresh();
+
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", 1);
+        snapshot.refresh();
+
+        assertEquals(1, snapshot.current().size());
+        assertEquals(-1, snapshot.current().indexOf(1));
+    }
+
+    // ✅ Test: A full overlay is compacted into a new packed directory without reloading the table
+    @Test
+    void testCompactsWhenOverlayIsFull() {
+        insert(1, "john.doe@example.com");
+        insert(2, "jane.doe@example.com");
+        int[] fullLoads = {0};
+        UserDirectoryLoader loader = new UserDirectoryLoader(jdbcTemplate) {
+            @Override
+            public Result loadAll() {
+                fullLoads[0]++;
+                return super.loadAll();
+            }
+        };
+        UserSnapshot snapshot = new UserSnapshot(loader, Duration.ofSeconds(5), Duration.ofHours(1),
+                Duration.ofSeconds(2), 2);
+        snapshot.refresh();
+        UserDirectory loaded = snapshot.current();
+
+        insert(3, "new.user@example.com");
+        snapshot.refresh();
+        assertEquals(1, snapshot.current().pendingChanges());
+
+        delete(1);
+        snapshot.refresh();
+        UserDirectory compacted = snapshot.current();
+        assertFalse(compacted.sharesBaseWith(loaded));
+        assertEquals(0, compacted.pendingChanges());
+        assertEquals(2, compacted.size());
+        assertEquals(-1, compacted.indexOf(1));
+        assertEquals(3L, compacted.idAt(compacted.indexOfEmail("new.user@example.com")));
+        assertEquals(1, fullLoads[0]);
+    }
+
+    private void insert(long id, String email) {
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, date_of_birth, updated_at) "
+                + "VALUES (?, 'Test', 'User', ?, DATE '1990-05-20', ?)", id, email, tick());
+    }
+
+    private void delete(long id) {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", id);
+        jdbcTemplate.update("INSERT INTO user_deletions (user_id, deleted_at) VALUES (?, ?)", id, tick());
+    }
+
+    private LocalDateTime tick() {
+        clock = clock.plusSeconds(10);
+        return clock;
+    }
+}
@@ -0,0 +1,152 @@
+package com.ivan.usermanagement.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ivan.usermanagement.config.TracingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTracerTest {
+
+    private InMemorySpanExporter exporter;
+    private RequestTracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new InMemorySpanExporter(100);
+        tracer = new RequestTracer(new TracingProperties(), exporter);
+    }
+
+    // ✅ Test: Nested spans are exported with parent links and SQL counts
+    @Test
+    void testSpansAreExported() {
+        tracer.begin("GET /api/users/1", Map.of("http.method", "GET"));
+        tracer.startSpan("UserController.getUserById", "controller");
+        tracer.startSpan("UserServiceImpl.getUserById", "service");
+        tracer.startSpan("CrudRepository.findById", "repository");
+        tracer.recordStatement("select u1_0.id from users u1_0 where u1_0.id=?");
+        tracer.endSpan(null);
+        tracer.endSpan(null);
+        tracer.endSpan(null);
+        RequestTrace trace = tracer.end(Map.of("http.status_code", "200"));
+
+        List<Span> spans = exporter.getSpans();
+        assertEquals(4, spans.size());
+        Span root = spans.get(0);
+        assertNull(root.getParentId());
+        assertEquals("SERVER", root.getKind());
+        assertEquals("200", root.getTags().get("http.status_code"));
+        assertEquals("1", root.getTags().get("sql.count"));
+
+        Span repository = spans.get(1);
+        Span service = spans.get(2);
+        Span controller = spans.get(3);
+        assertEquals(root.getId(), controller.getParentId());
+        assertEquals(controller.getId(), service.getParentId());
+        assertEquals(service.getId(), repository.getParentId());
+        assertEquals("repository", repository.getTags().get("layer"));
+        assertTrue(spans.stream().allMatch(span -> span.getTraceId().equals(root.getTraceId())));
+
+        assertEquals(1, trace.getStatementCount());
+        assertTrue(trace.getWarnings().isEmpty());
+        assertFalse(tracer.isActive());
+    }
+
+    // ✅ Test: Consecutive mapper calls are folded into one span with a call count
+    @Test
+    void testMapperCallsAreFolded() {
+        tracer.begin("GET /api/users", Map.of());
+        tracer.startSpan("UserServiceImpl.getAllUsers", "service");
+        tracer.startSpan("CrudRepository.findAll", "repository");
+        tracer.endSpan(null);
+        for (int i = 0; i < 3; i++) {
+            tracer.startSpan("UserMapper.toDto", "mapper", true);
+            tracer.endSpan(null);
+        }
+        tracer.endSpan(null);
+        RequestTrace trace = tracer.end(Map.of());
+
+        List<Span> spans = exporter.getSpans();
+        assertEquals(4, spans.size());
+        Span service = spans.get(2);
+        Span mapper = spans.get(3);
+        assertEquals("UserMapper.toDto", mapper.getName());
+        assertEquals(service.getId(), mapper.getParentId());
+        assertEquals("mapper", mapper.getTags().get("layer"));
+        assertEquals("3", mapper.getTags().get("calls"));
+        assertTrue(trace.getLayerMillis().containsKey("mapper"));
+    }
+
+    // ❌ Test: Existence check followed by delete is flagged as redundant reads
+    @Test
+    void testRedundantSelectsAreFlagged() {
+        tracer.begin("DELETE /api/users/1", Map.of());
+        tracer.recordStatement("select count(*) from users u1_0 where u1_0.id=?");
+        tracer.recordStatement("select u1_0.id,u1_0.email from users u1_0 where u1_0.id=?");
+        tracer.recordStatement("delete from users where id=?");
+        RequestTrace trace = tracer.end(Map.of());
+
+        assertEquals(1, trace.getWarnings().size());
+        assertEquals("Redundant reads: 2 SELECTs on table users", trace.getWarnings().get(0));
+        assertTrue(exporter.getSpans().get(0).getTags().get("perf.warnings").contains("Redundant reads"));
+    }
+
+    // ❌ Test: Repeated statement and statement budget warnings
+    @Test
+    void testNPlusOneIsFlagged() {
+        tracer.begin("GET /api/users", Map.of());
+        for (int i = 0; i < 11; i++) {
+            tracer.recordStatement("select a1_0.id from addresses a1_0 where a1_0.user_id=?");
+        }
+        RequestTrace trace = tracer.end(Map.of());
+
+        List<String> warnings = trace.getWarnings();
+        assertTrue(warnings.contains("11 SQL statements, limit is 10"));
+        assertTrue(warnings.stream().anyMatch(warning -> warning.startsWith("Possible N+1: same SELECT executed 11 times")));
+    }
+
+    // ✅ Test: Calls outside a request are ignored
+    @Test
+    void testNoTraceOutsideRequest() {
+        tracer.startSpan("UserServiceImpl.getAllUsers", "service");
+        tracer.recordStatement("select 1");
+        tracer.endSpan(null);
+
+        assertNull(tracer.end(Map.of()));
+        assertTrue(exporter.getSpans().isEmpty());
+    }
+
+    // ✅ Test: File exporter writes one Zipkin v2 JSON array per request in the background
+    @Test
+    void testZipkinJsonFileExporter(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("traces/spans.json");
+        ZipkinJsonFileExporter fileExporter = new ZipkinJsonFileExporter(file, "user-management", 100);
+        RequestTracer fileTracer = new RequestTracer(new TracingProperties(), fileExporter);
+
+        fileTracer.begin("GET /api/users", Map.of("http.method", "GET"));
+        fileTracer.startSpan("UserController.getAllUsers", "controller");
+        fileTracer.endSpan(null);
+        fileTracer.end(Map.of());
+        fileTracer.begin("GET /api/users", Map.of());
+        fileTracer.end(Map.of());
+        fileExporter.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode spans = new ObjectMapper().readTree(lines.get(0));
+        assertEquals(2, spans.size());
+        assertEquals(32, spans.get(0).get("traceId").asText().length());
+        assertEquals("user-management", spans.get(0).get("localEndpoint").get("serviceName").asText());
+        assertEquals("GET", spans.get(0).get("tags").get("http.method").asText());
+        assertEquals(spans.get(0).get("id").asText(), spans.get(1).get("parentId").asText());
+        assertEquals(0, fileExporter.getDroppedSpans());
+    }
+}
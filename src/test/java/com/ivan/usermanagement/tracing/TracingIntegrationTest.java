@@ -0,0 +1,94 @@
+package com.ivan.usermanagement.tracing;
+
+import com.ivan.usermanagement.entity.User;
+import com.ivan.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the real wiring on the embedded database: the servlet filter, the aspect and the Hibernate
+ * statement inspector together.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class TracingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SpanExporter spanExporter;
+
+    // ❌ Test: Delete User checks existence and loads the row again, flagged as redundant reads;
+    // the fourth statement is the snapshot tombstone
+    @Test
+    void testDeleteUserIsTraced() throws Exception {
+        Long id = userRepository.save(new User(null, "John", "Doe", "traced.delete@example.com",
+                LocalDate.of(1990, 5, 20))).getId();
+        InMemorySpanExporter exporter = (InMemorySpanExporter) spanExporter;
+        exporter.clear();
+
+        mockMvc.perform(delete("/api/users/{id}", id))
+                .andExpect(status().isNoContent());
+
+        List<Span> spans = exporter.getSpans();
+        Span root = spans.get(0);
+        assertEquals("DELETE /api/users/" + id, root.getName());
+        assertEquals("204", root.getTags().get("http.status_code"));
+        assertEquals("4", root.getTags().get("sql.count"));
+        assertTrue(root.getTags().get("perf.warnings").contains("Redundant reads: 2 SELECTs on table users"));
+
+        Set<String> layers = spans.stream()
+                .map(span -> span.getTags().get("layer"))
+                .collect(Collectors.toSet());
+        assertTrue(layers.containsAll(Set.of("controller", "service", "repository")));
+        assertTrue(spans.stream().anyMatch(span -> span.getName().equals("UserController.deleteUser")));
+        assertTrue(spans.stream().anyMatch(span -> span.getName().equals("UserServiceImpl.deleteUser")));
+        assertTrue(spans.stream().anyMatch(span -> span.getName().endsWith(".existsById")));
+    }
+
+    // ✅ Test: Update User loads and updates the row in one transaction, without re-selecting it,
+    // and the mapping shows up as its own layer
+    @Test
+    void testUpdateUserIsTraced() throws Exception {
+        Long id = userRepository.save(new User(null, "John", "Doe", "traced.update@example.com",
+                LocalDate.of(1990, 5, 20))).getId();
+        InMemorySpanExporter exporter = (InMemorySpanExporter) spanExporter;
+        exporter.clear();
+
+        mockMvc.perform(put("/api/users/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstName": "Jane", "lastName": "Doe",
+                                 "email": "traced.update@example.com", "dateOfBirth": "1990-05-20"}
+                                """))
+                .andExpect(status().isOk());
+
+        List<Span> spans = exporter.getSpans();
+        Span root = spans.get(0);
+        assertEquals("PUT /api/users/" + id, root.getName());
+        assertEquals("2", root.getTags().get("sql.count"));
+        assertNull(root.getTags().get("perf.warnings"));
+        assertTrue(spans.stream().anyMatch(span -> span.getName().equals("UserMapper.toDto")
+                && "mapper".equals(span.getTags().get("layer"))));
+    }
+}